@@ -1,49 +1,323 @@
 package com.example;
 
 import com.example.config.AppConfig;
+import com.example.config.InputFormat;
+import com.example.config.OutputMode;
 import com.example.data.FileService;
+import com.example.data.OutputCache;
+import com.example.data.ShardedOutputWriter;
+import com.example.data.json.FlightTimeTrackerModule;
+import com.example.data.models.OutputData;
+import com.example.data.source.CsvSource;
+import com.example.data.source.FlightSource;
+import com.example.data.source.JsonDocumentSource;
+import com.example.data.source.NdjsonSource;
+import com.example.services.CachingProcessor;
+import com.example.services.ExternalAggregationProcessor;
 import com.example.services.JsonFileProcessor;
 import com.example.services.JsonFileProcessorImpl;
+import com.example.services.ProcessingCancelledException;
+import com.example.services.ProcessingMonitor;
+import com.example.services.ProcessingProgress;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Основной класс приложения FlightTimeTrackerApp.
  * Этот класс служит точкой входа в приложение для отслеживания времени полета.
  * <p>
  * Приложение загружает входные данные о полетах, обрабатывает их, рассчитывает данные и сохраняет результаты.
+ * Входной файл может быть в формате JSON, NDJSON или CSV (см. {@link InputFormat}); файлы NDJSON и CSV
+ * читаются параллельно по частям.
+ * </p>
+ * <p>
+ * С аргументом <code>--training-run</code> приложение выполняет обучающий запуск: обрабатывает входной файл
+ * из конфигурации и сохраняет результаты во временный каталог, не изменяя выходные файлы. Обучающий запуск
+ * используется при сборке для создания архива классов AppCDS (профиль Maven <code>cds</code>).
+ * </p>
+ * <p>
+ * Перед началом работы проверяется конфигурация (см. {@link AppConfig#validate()}): при неверных значениях
+ * свойств приложение завершается с кодом 1, не начиная обработку.
+ * С кодом 1 приложение завершается и при ошибке обработки или обучающего запуска.
+ * </p>
+ * <p>
+ * Ход обработки входного файла периодически выводится в лог. При завершении процесса (например, по сигналу
+ * SIGTERM) обработка отменяется, и выходной файл не изменяется: он записывается только после успешной
+ * обработки и через временный файл.
  * </p>
  */
 @Slf4j
 public class FlightTimeTrackerApp {
+    static final String TRAINING_RUN_ARGUMENT = "--training-run";
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(30);
+
     public static void main(String[] args) {
         log.info("Запуск приложения FlightTimeTracker");
+        try {
+            AppConfig.validate();
+        } catch (IllegalStateException e) {
+            log.error("Приложение не запущено: {}", e.getMessage());
+            System.exit(1);
+            return;
+        }
+        if (Arrays.asList(args).contains(TRAINING_RUN_ARGUMENT)) {
+            if (!runTraining()) {
+                System.exit(1);
+            }
+            return;
+        }
 
         String inputFilePath = AppConfig.getInputFilePath();
         log.debug("Путь к входному файлу: {}", inputFilePath);
         String outputFilePath = AppConfig.getOutputFilePath();
         log.debug("Путь к выходному файлу: {}", outputFilePath);
 
-        ObjectMapper objectMapper = new ObjectMapper();
-        objectMapper.registerModule(new JavaTimeModule());
+        ObjectMapper objectMapper = createObjectMapper();
 
         FileService fileService = new FileService(objectMapper);
-        JsonFileProcessor jsonFileProcessorImpl = new JsonFileProcessorImpl();
+        JsonFileProcessor jsonFileProcessorImpl = new JsonFileProcessorImpl(AppConfig.getInputReaderThreads(),
+                AppConfig.getLimitReportTopCount());
+
+        OutputCache outputCache = AppConfig.isCacheEnabled()
+                ? new OutputCache(objectMapper, Path.of(AppConfig.getCacheDirectory()),
+                AppConfig.getCacheMaxEntries(), AppConfig.getCacheMaxSizeMb() * 1024 * 1024)
+                : null;
+        CachingProcessor cachingProcessor = new CachingProcessor(fileService, jsonFileProcessorImpl, outputCache,
+                AppConfig.getProcessingSettings());
+
+        ProcessingMonitor monitor = new ProcessingMonitor(FlightTimeTrackerApp::logProgress,
+                Duration.ofSeconds(AppConfig.getProgressIntervalSeconds()));
+        cancelOnShutdown(monitor, Thread.currentThread());
 
+        boolean failed = false;
         try {
-            log.info("Загрузка входных данных из файла: {}", inputFilePath);
-            var inputData = fileService.loadInputData(inputFilePath);
-            log.info("Входные данные успешно загружены. Начинается обработка...");
+            OutputData outputData = processInput(inputFilePath, objectMapper, fileService, jsonFileProcessorImpl,
+                    cachingProcessor, monitor);
+            if (AppConfig.getOutputMode() == OutputMode.SHARDED) {
+                String shardDirectory = AppConfig.getOutputShardDirectory();
+                log.info("Обработка данных завершена. Сохранение результатов в каталог: {}", shardDirectory);
 
-            var outputData = jsonFileProcessorImpl.processInputData(inputData);
-            log.info("Обработка данных завершена. Сохранение результатов в файл: {}", outputFilePath);
+                var shardedOutputWriter = new ShardedOutputWriter(objectMapper,
+                        AppConfig.getOutputShardCount(), AppConfig.getOutputWriterThreads());
+                shardedOutputWriter.write(Path.of(shardDirectory), outputData);
+                log.info("Выходные данные успешно сохранены в каталог: {}", shardDirectory);
+            } else {
+                log.info("Обработка данных завершена. Сохранение результатов в файл: {}", outputFilePath);
 
-            fileService.saveOutputData(outputFilePath, outputData);
-            log.info("Выходные данные успешно сохранены в файл: {}", outputFilePath);
+                fileService.saveOutputData(outputFilePath, outputData);
+                log.info("Выходные данные успешно сохранены в файл: {}", outputFilePath);
+            }
+
+            if (outputData.getLimitReport() != null) {
+                String reportFilePath = AppConfig.getReportFilePath();
+                fileService.saveLimitReport(reportFilePath, outputData.getLimitReport());
+                log.info("Отчет о близости к ограничениям сохранен в файл: {}", reportFilePath);
+            }
+        } catch (ProcessingCancelledException e) {
+            log.warn("Обработка отменена, выходные данные не сохранены.");
         } catch (Exception e) {
             log.error("Во время выполнения приложения произошла ошибка: {}", e.getMessage(), e);
+            failed = true;
         }
         log.info("Приложение FlightTimeTracker завершило выполнение.");
+        if (failed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Создает объект для сериализации и десериализации JSON с поддержкой дат Java Time
+     * и десериализаторами входных данных {@link FlightTimeTrackerModule}.
+     *
+     * @return настроенный объект {@link ObjectMapper}.
+     */
+    static ObjectMapper createObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.registerModule(new JavaTimeModule());
+        objectMapper.registerModule(new FlightTimeTrackerModule());
+        return objectMapper;
+    }
+
+    /**
+     * Обрабатывает входные данные: каталог шардов или входной файл формата из конфигурации, с учетом кэша.
+     *
+     * @param inputFilePath     путь к входному файлу или каталогу шардов.
+     * @param objectMapper      объект для чтения JSON.
+     * @param fileService       сервис для работы с файлами.
+     * @param jsonFileProcessor обработчик входных данных.
+     * @param cachingProcessor  обработчик с кэшем результатов.
+     * @param monitor           монитор запуска.
+     * @return результаты обработки.
+     * @throws IOException если произошла ошибка при чтении входных данных.
+     */
+    private static OutputData processInput(String inputFilePath, ObjectMapper objectMapper, FileService fileService,
+                                           JsonFileProcessor jsonFileProcessor, CachingProcessor cachingProcessor,
+                                           ProcessingMonitor monitor) throws IOException {
+        if (Files.isDirectory(Path.of(inputFilePath))) {
+            log.info("Обработка шардов входных данных из каталога: {}", inputFilePath);
+            return cachingProcessor.processShards(fileService.listInputShards(inputFilePath), monitor);
+        }
+        InputFormat inputFormat = AppConfig.getInputFormat();
+        List<Path> relatedFiles = inputFormat == InputFormat.CSV
+                ? List.of(Path.of(AppConfig.getInputSpecialistsFilePath()))
+                : List.of();
+        return cachingProcessor.process(Path.of(inputFilePath), relatedFiles,
+                inputFile -> processInputFile(inputFile, inputFormat, objectMapper, jsonFileProcessor, monitor));
+    }
+
+    /**
+     * Обрабатывает входной файл в памяти или через временные файлы в зависимости от конфигурации.
+     *
+     * @param inputFile         путь к входному файлу.
+     * @param inputFormat       формат входного файла.
+     * @param objectMapper      объект для чтения JSON.
+     * @param jsonFileProcessor обработчик входных данных.
+     * @param monitor           монитор запуска.
+     * @return результаты обработки.
+     * @throws IOException если произошла ошибка при чтении файла.
+     */
+    private static OutputData processInputFile(Path inputFile, InputFormat inputFormat, ObjectMapper objectMapper,
+                                               JsonFileProcessor jsonFileProcessor,
+                                               ProcessingMonitor monitor) throws IOException {
+        FlightSource source = createSource(inputFile, inputFormat, objectMapper, monitor);
+        if (AppConfig.isExternalAggregation()) {
+            log.info("Обработка входных данных из источника {} через временные файлы", source);
+            var externalProcessor = new ExternalAggregationProcessor(
+                    AppConfig.getExternalMemoryBudgetMb() * 1024 * 1024,
+                    AppConfig.getExternalAggregationThreads(),
+                    Path.of(AppConfig.getExternalTempDirectory()),
+                    AppConfig.getLimitReportTopCount());
+            return externalProcessor.process(source, monitor);
+        }
+        return jsonFileProcessor.processSource(source, monitor);
+    }
+
+    /**
+     * Создает источник входных данных заданного формата.
+     *
+     * @param inputFile    путь к входному файлу.
+     * @param inputFormat  формат входного файла.
+     * @param objectMapper объект для чтения JSON.
+     * @param monitor      монитор запуска, учитывающий прочитанные байты входных файлов.
+     * @return источник входных данных.
+     */
+    private static FlightSource createSource(Path inputFile, InputFormat inputFormat, ObjectMapper objectMapper,
+                                             ProcessingMonitor monitor) {
+        return switch (inputFormat) {
+            case NDJSON -> new NdjsonSource(inputFile, objectMapper, monitor::track);
+            case CSV -> new CsvSource(inputFile, Path.of(AppConfig.getInputSpecialistsFilePath()), monitor::track);
+            case JSON -> new JsonDocumentSource(inputFile, objectMapper, monitor::track);
+        };
+    }
+
+    /**
+     * Регистрирует обработчик завершения процесса, который отменяет незавершенную обработку
+     * и ожидает завершения основного потока.
+     *
+     * @param monitor    монитор запуска.
+     * @param mainThread основной поток приложения.
+     */
+    private static void cancelOnShutdown(ProcessingMonitor monitor, Thread mainThread) {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            if (!mainThread.isAlive()) {
+                return;
+            }
+            monitor.cancel();
+            try {
+                mainThread.join(SHUTDOWN_TIMEOUT.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "shutdown-cancel"));
+    }
+
+    /**
+     * Выводит в лог снимок хода обработки.
+     *
+     * @param progress снимок хода обработки.
+     */
+    private static void logProgress(ProcessingProgress progress) {
+        String remaining = progress.estimatedRemaining() == null
+                ? "неизвестно"
+                : progress.estimatedRemaining().toSeconds() + " с";
+        log.info("Этап {}: прочитано {} из {} байт, полетов {} из {}, специалистов {} из {}, прошло {} с, "
+                        + "осталось {}.", progress.stage(), progress.bytesParsed(), total(progress.totalBytes()),
+                progress.flightsAggregated(), total(progress.totalFlights()), progress.specialistsFinished(),
+                total(progress.totalSpecialists()), progress.elapsed().toSeconds(), remaining);
+    }
+
+    /**
+     * Возвращает общее количество для лога: отрицательное значение означает, что оно неизвестно.
+     */
+    private static String total(long total) {
+        return total < 0 ? "неизвестно" : String.valueOf(total);
+    }
+
+    /**
+     * Выполняет обучающий запуск: проходит по основным путям обработки на входном файле из конфигурации,
+     * чтобы загрузить и инициализировать используемые классы. Входной файл обрабатывается так же, как при
+     * обычном запуске, но с кэшем результатов во временном каталоге: повторная обработка читает результат
+     * из кэша, а для JSON файл дополнительно обрабатывается как шард. Результаты сохраняются во временный
+     * каталог, который удаляется после запуска.
+     *
+     * @return <code>true</code>, если обучающий запуск завершился без ошибок.
+     */
+    private static boolean runTraining() {
+        String inputFilePath = AppConfig.getInputFilePath();
+        log.info("Обучающий запуск на входном файле: {}", inputFilePath);
+        ObjectMapper objectMapper = createObjectMapper();
+        FileService fileService = new FileService(objectMapper);
+        JsonFileProcessor jsonFileProcessor = new JsonFileProcessorImpl(AppConfig.getInputReaderThreads(),
+                AppConfig.getLimitReportTopCount());
+        ProcessingMonitor monitor = ProcessingMonitor.none();
+
+        Path directory = null;
+        try {
+            directory = Files.createTempDirectory("flight-time-tracker-training-");
+            var outputCache = new OutputCache(objectMapper, directory.resolve("cache"),
+                    AppConfig.getCacheMaxEntries(), AppConfig.getCacheMaxSizeMb() * 1024 * 1024);
+            var cachingProcessor = new CachingProcessor(fileService, jsonFileProcessor, outputCache,
+                    AppConfig.getProcessingSettings());
+            var outputData = processInput(inputFilePath, objectMapper, fileService, jsonFileProcessor,
+                    cachingProcessor, monitor);
+            processInput(inputFilePath, objectMapper, fileService, jsonFileProcessor, cachingProcessor, monitor);
+            if (AppConfig.getInputFormat() == InputFormat.JSON && Files.isRegularFile(Path.of(inputFilePath))) {
+                cachingProcessor.processShards(List.of(Path.of(inputFilePath)), monitor);
+            }
+
+            fileService.saveLimitReport(directory.resolve("report.json").toString(), outputData.getLimitReport());
+            fileService.saveOutputData(directory.resolve("output.json").toString(), outputData);
+            new ShardedOutputWriter(objectMapper, 2, 1).write(directory.resolve("shards"), outputData);
+            log.info("Обучающий запуск завершен.");
+            return true;
+        } catch (Exception e) {
+            log.error("Во время обучающего запуска произошла ошибка: {}", e.getMessage(), e);
+            return false;
+        } finally {
+            deleteRecursively(directory);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        if (directory == null) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временный каталог {}: {}", directory, e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -4,7 +4,10 @@ import lombok.extern.slf4j.Slf4j;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.function.Supplier;
 
 /**
  * Класс конфигурации приложения, предназначенный для загрузки и предоставления
@@ -14,13 +17,19 @@ import java.util.Properties;
  * как private и выбрасывает исключение {@link UnsupportedOperationException}, если
  * вызывается.</p>
  *
- * <p>Свойства конфигурации загружаются статически при первом обращении к классу.
- * Если файл конфигурации отсутствует или не может быть загружен, ошибка будет
- * зарегистрирована в логах.</p>
+ * <p>Свойства конфигурации загружаются статически при первом обращении к классу. Приложение
+ * вызывает {@link #validate()} при запуске: если файл конфигурации отсутствует или не может быть
+ * загружен либо числовое, логическое или перечислимое свойство имеет неверное значение, запуск
+ * прерывается до начала обработки.</p>
+ *
+ * <p>Любое свойство можно переопределить системным свойством JVM с тем же именем
+ * (например, <code>-DinputFilePath=shard-01.json</code>), что удобно для коротких запусков
+ * по отдельным шардам без изменения файла конфигурации.</p>
  */
 @Slf4j
 public class AppConfig {
     private static final Properties properties = new Properties();
+    private static final IOException loadError;
 
     /**
      * Закрытый конструктор для предотвращения создания экземпляров.
@@ -32,16 +41,112 @@ public class AppConfig {
     }
 
     static {
+        IOException error = null;
         try (InputStream inputStream = AppConfig.class.getClassLoader().getResourceAsStream("config.properties")) {
             if (inputStream == null) {
                 throw new IOException("Файл конфигурации не найден");
             }
             properties.load(inputStream);
         } catch (IOException e) {
-            log.error("Ошибка при загрузке конфигурации: {}", e.getMessage());
+            error = e;
+        }
+        loadError = error;
+    }
+
+    /**
+     * Проверяет конфигурацию: файл конфигурации загружен, а все числовые, логические и перечислимые
+     * свойства разбираются и находятся в допустимых пределах. Вызывается один раз при запуске приложения,
+     * чтобы ошибка конфигурации обнаруживалась до начала обработки, а не в ее середине.
+     *
+     * @throws IllegalStateException если файл конфигурации не загружен или свойства имеют неверные значения;
+     *                               сообщение содержит все найденные ошибки.
+     */
+    public static void validate() {
+        List<String> errors = new ArrayList<>();
+        if (loadError != null) {
+            errors.add("файл config.properties не загружен: " + loadError.getMessage());
+        }
+        check(errors, "inputFormat", AppConfig::getInputFormat);
+        check(errors, "inputReaderThreads", () -> requirePositive(getInputReaderThreads()));
+        check(errors, "limitReportTopCount", () -> requirePositive(getLimitReportTopCount()));
+        check(errors, "outputMode", AppConfig::getOutputMode);
+        check(errors, "outputShardCount", () -> requireNonNegative(getOutputShardCount()));
+        check(errors, "outputWriterThreads", () -> requirePositive(getOutputWriterThreads()));
+        check(errors, "externalAggregation", AppConfig::isExternalAggregation);
+        check(errors, "externalMemoryBudgetMb", () -> requirePositive(getExternalMemoryBudgetMb()));
+        check(errors, "externalAggregationThreads", () -> requirePositive(getExternalAggregationThreads()));
+        check(errors, "cacheEnabled", AppConfig::isCacheEnabled);
+        check(errors, "cacheMaxEntries", () -> requirePositive(getCacheMaxEntries()));
+        check(errors, "cacheMaxSizeMb", () -> requirePositive(getCacheMaxSizeMb()));
+        check(errors, "progressIntervalSeconds", () -> requireNonNegative(getProgressIntervalSeconds()));
+        if (!errors.isEmpty()) {
+            throw new IllegalStateException("Неверная конфигурация: " + String.join("; ", errors));
         }
     }
 
+    private static void check(List<String> errors, String key, Supplier<?> getter) {
+        try {
+            getter.get();
+        } catch (IllegalArgumentException e) {
+            errors.add(key + "=" + getProperty(key, "") + " (" + e.getMessage() + ")");
+        }
+    }
+
+    private static long requirePositive(long value) {
+        if (value < 1) {
+            throw new IllegalArgumentException("значение должно быть больше нуля");
+        }
+        return value;
+    }
+
+    private static long requireNonNegative(long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("значение не может быть отрицательным");
+        }
+        return value;
+    }
+
+    /**
+     * Разбирает логическое значение: допускаются только <code>true</code> и <code>false</code>
+     * без учета регистра, в отличие от {@link Boolean#parseBoolean(String)}, которое считает
+     * любую опечатку значением <code>false</code>.
+     */
+    private static boolean parseBoolean(String value) {
+        String trimmed = value.trim();
+        if (!trimmed.equalsIgnoreCase("true") && !trimmed.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException("ожидается true или false");
+        }
+        return Boolean.parseBoolean(trimmed);
+    }
+
+    /**
+     * Получает значение свойства: системное свойство JVM, затем свойство файла конфигурации,
+     * затем значение по умолчанию.
+     *
+     * @param key          имя свойства.
+     * @param defaultValue значение по умолчанию.
+     * @return значение свойства.
+     */
+    private static String getProperty(String key, String defaultValue) {
+        return System.getProperty(key, properties.getProperty(key, defaultValue));
+    }
+
+    /**
+     * Возвращает описание параметров обработки, от которых зависит результат: формата входных данных,
+     * режима внешней агрегации, режима вывода и размера отчета о близости к ограничениям. Используется
+     * в ключе кеша результатов, чтобы изменение конфигурации не возвращало результат, рассчитанный
+     * с прежними параметрами.
+     *
+     * @return строка вида <code>имя=значение</code> через точку с запятой.
+     */
+    public static String getProcessingSettings() {
+        return "inputFormat=" + getInputFormat()
+                + ";externalAggregation=" + isExternalAggregation()
+                + ";outputMode=" + getOutputMode()
+                + ";outputShardCount=" + getOutputShardCount()
+                + ";limitReportTopCount=" + getLimitReportTopCount();
+    }
+
     /**
      * Получает путь к входному файлу, указанному в свойстве <code>inputFilePath</code>
      * файла конфигурации. Если свойство отсутствует, используется значение по умолчанию
@@ -50,7 +155,45 @@ public class AppConfig {
      * @return путь к входному файлу.
      */
     public static String getInputFilePath() {
-        return properties.getProperty("inputFilePath", "resources/input.json");
+        return getProperty("inputFilePath", "resources/input.json");
+    }
+
+    /**
+     * Получает формат входного файла, указанный в свойстве <code>inputFormat</code> файла конфигурации.
+     * Если свойство отсутствует, формат определяется по расширению входного файла
+     * (см. {@link InputFormat#fromFileName(String)}).
+     *
+     * @return формат входного файла.
+     * @throws IllegalArgumentException если указан неизвестный формат.
+     */
+    public static InputFormat getInputFormat() {
+        String value = getProperty("inputFormat", null);
+        return value == null
+                ? InputFormat.fromFileName(getInputFilePath())
+                : InputFormat.valueOf(value.trim().toUpperCase());
+    }
+
+    /**
+     * Получает путь к CSV-файлу специалистов, указанному в свойстве <code>inputSpecialistsFilePath</code>
+     * файла конфигурации. Используется для входных данных в формате {@link InputFormat#CSV}. Если свойство
+     * отсутствует, используется значение по умолчанию <code>resources/specialists.csv</code>.
+     *
+     * @return путь к файлу специалистов.
+     */
+    public static String getInputSpecialistsFilePath() {
+        return getProperty("inputSpecialistsFilePath", "resources/specialists.csv");
+    }
+
+    /**
+     * Получает количество потоков чтения входных файлов NDJSON и CSV, указанное в свойстве
+     * <code>inputReaderThreads</code> файла конфигурации. Если свойство отсутствует, используется
+     * количество доступных процессоров.
+     *
+     * @return количество потоков чтения.
+     */
+    public static int getInputReaderThreads() {
+        String value = getProperty("inputReaderThreads", null);
+        return value == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value.trim());
     }
 
     /**
@@ -61,6 +204,164 @@ public class AppConfig {
      * @return путь к выходному файлу.
      */
     public static String getOutputFilePath() {
-        return properties.getProperty("outputFilePath", "resources/output.json");
+        return getProperty("outputFilePath", "resources/output.json");
+    }
+
+    /**
+     * Получает путь к файлу отчета о специалистах, близких к ограничениям по часам, указанный в свойстве
+     * <code>reportFilePath</code>. Если свойство отсутствует, используется значение по умолчанию
+     * <code>resources/report.json</code>.
+     *
+     * @return путь к файлу отчета.
+     */
+    public static String getReportFilePath() {
+        return getProperty("reportFilePath", "resources/report.json");
+    }
+
+    /**
+     * Получает количество специалистов, ближайших к ограничению за месяц, в отчете для каждого месяца,
+     * указанное в свойстве <code>limitReportTopCount</code>. Если свойство отсутствует, используется значение
+     * по умолчанию <code>100</code>.
+     *
+     * @return количество специалистов в списке ближайших к ограничению за месяц.
+     */
+    public static int getLimitReportTopCount() {
+        return Integer.parseInt(getProperty("limitReportTopCount", "100").trim());
+    }
+
+    /**
+     * Получает режим сохранения выходных данных, указанный в свойстве <code>outputMode</code>
+     * файла конфигурации. Если свойство отсутствует, используется режим {@link OutputMode#SINGLE}.
+     *
+     * @return режим сохранения выходных данных.
+     * @throws IllegalArgumentException если указан неизвестный режим.
+     */
+    public static OutputMode getOutputMode() {
+        return OutputMode.valueOf(getProperty("outputMode", "single").trim().toUpperCase());
+    }
+
+    /**
+     * Получает каталог для шардированного вывода, указанный в свойстве <code>outputShardDirectory</code>
+     * файла конфигурации. Если свойство отсутствует, используется значение по умолчанию
+     * <code>resources/output-shards</code>.
+     *
+     * @return путь к каталогу шардов.
+     */
+    public static String getOutputShardDirectory() {
+        return getProperty("outputShardDirectory", "resources/output-shards");
+    }
+
+    /**
+     * Получает количество шардов, указанное в свойстве <code>outputShardCount</code> файла конфигурации.
+     * Значение <code>0</code> означает отдельный файл для каждого специалиста. Если свойство отсутствует,
+     * используется значение по умолчанию <code>16</code>.
+     *
+     * @return количество шардов.
+     */
+    public static int getOutputShardCount() {
+        return Integer.parseInt(getProperty("outputShardCount", "16").trim());
+    }
+
+    /**
+     * Получает количество потоков записи шардов, указанное в свойстве <code>outputWriterThreads</code>
+     * файла конфигурации. Если свойство отсутствует, используется количество доступных процессоров.
+     *
+     * @return количество потоков записи.
+     */
+    public static int getOutputWriterThreads() {
+        String value = getProperty("outputWriterThreads", null);
+        return value == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Проверяет, включена ли внешняя агрегация с использованием временных файлов (свойство
+     * <code>externalAggregation</code>). По умолчанию выключена.
+     *
+     * @return <code>true</code>, если входные данные обрабатываются через временные файлы.
+     */
+    public static boolean isExternalAggregation() {
+        return parseBoolean(getProperty("externalAggregation", "false"));
+    }
+
+    /**
+     * Получает бюджет памяти внешней агрегации в мегабайтах, указанный в свойстве
+     * <code>externalMemoryBudgetMb</code>. Если свойство отсутствует, используется значение <code>256</code>.
+     *
+     * @return бюджет памяти в мегабайтах.
+     */
+    public static long getExternalMemoryBudgetMb() {
+        return Long.parseLong(getProperty("externalMemoryBudgetMb", "256").trim());
+    }
+
+    /**
+     * Получает количество потоков внешней агрегации, указанное в свойстве <code>externalAggregationThreads</code>.
+     * Если свойство отсутствует, используется количество доступных процессоров.
+     *
+     * @return количество потоков агрегации.
+     */
+    public static int getExternalAggregationThreads() {
+        String value = getProperty("externalAggregationThreads", null);
+        return value == null ? Runtime.getRuntime().availableProcessors() : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Получает каталог временных файлов внешней агрегации, указанный в свойстве
+     * <code>externalTempDirectory</code>. Если свойство отсутствует, используется системный каталог
+     * временных файлов.
+     *
+     * @return путь к каталогу временных файлов.
+     */
+    public static String getExternalTempDirectory() {
+        return getProperty("externalTempDirectory", System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Проверяет, включен ли кеш результатов обработки (свойство <code>cacheEnabled</code>).
+     * По умолчанию выключен.
+     *
+     * @return <code>true</code>, если результаты обработки кешируются.
+     */
+    public static boolean isCacheEnabled() {
+        return parseBoolean(getProperty("cacheEnabled", "false"));
+    }
+
+    /**
+     * Получает каталог кеша результатов, указанный в свойстве <code>cacheDirectory</code>.
+     * Если свойство отсутствует, используется значение по умолчанию <code>.cache</code>.
+     *
+     * @return путь к каталогу кеша.
+     */
+    public static String getCacheDirectory() {
+        return getProperty("cacheDirectory", ".cache");
+    }
+
+    /**
+     * Получает максимальное количество записей кеша, указанное в свойстве <code>cacheMaxEntries</code>.
+     * Если свойство отсутствует, используется значение по умолчанию <code>256</code>.
+     *
+     * @return максимальное количество записей кеша.
+     */
+    public static int getCacheMaxEntries() {
+        return Integer.parseInt(getProperty("cacheMaxEntries", "256").trim());
+    }
+
+    /**
+     * Получает максимальный размер кеша в мегабайтах, указанный в свойстве <code>cacheMaxSizeMb</code>.
+     * Если свойство отсутствует, используется значение по умолчанию <code>1024</code>.
+     *
+     * @return максимальный размер кеша в мегабайтах.
+     */
+    public static long getCacheMaxSizeMb() {
+        return Long.parseLong(getProperty("cacheMaxSizeMb", "1024").trim());
+    }
+
+    /**
+     * Получает минимальный интервал между сообщениями о ходе обработки в секундах, указанный в свойстве
+     * <code>progressIntervalSeconds</code>. Если свойство отсутствует, используется значение <code>10</code>.
+     *
+     * @return интервал между сообщениями о ходе обработки в секундах.
+     */
+    public static long getProgressIntervalSeconds() {
+        return Long.parseLong(getProperty("progressIntervalSeconds", "10").trim());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,35 @@
+package com.example.config;
+
+/**
+ * Формат входного файла.
+ *
+ * <ul>
+ *     <li>{@link #JSON} — один JSON-объект с массивами <code>specialists</code> и <code>flights</code>.</li>
+ *     <li>{@link #NDJSON} — по одному JSON-объекту специалиста или полета в строке.</li>
+ *     <li>{@link #CSV} — полеты в файле <code>inputFilePath</code>, специалисты в файле
+ *     <code>inputSpecialistsFilePath</code>.</li>
+ * </ul>
+ */
+public enum InputFormat {
+    JSON,
+    NDJSON,
+    CSV;
+
+    /**
+     * Определяет формат по расширению файла: <code>.ndjson</code> и <code>.jsonl</code> — {@link #NDJSON},
+     * <code>.csv</code> — {@link #CSV}, остальные — {@link #JSON}.
+     *
+     * @param fileName имя или путь файла.
+     * @return формат входного файла.
+     */
+    public static InputFormat fromFileName(String fileName) {
+        String name = fileName.toLowerCase();
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return NDJSON;
+        }
+        if (name.endsWith(".csv")) {
+            return CSV;
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.config;
+
+/**
+ * Режим сохранения выходных данных.
+ *
+ * <ul>
+ *     <li>{@link #SINGLE} — все специалисты сохраняются в один файл <code>outputFilePath</code>.</li>
+ *     <li>{@link #SHARDED} — специалисты раскладываются по отдельным файлам в каталоге
+ *     <code>outputShardDirectory</code>, рядом сохраняется индекс <code>manifest.json</code>.</li>
+ * </ul>
+ */
+public enum OutputMode {
+    SINGLE,
+    SHARDED
+}
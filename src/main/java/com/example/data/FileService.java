@@ -1,23 +1,46 @@
 package com.example.data;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.example.data.models.InputData;
+import com.example.data.models.LimitReport;
 import com.example.data.models.OutputData;
+import com.example.utils.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Сервис для работы с файлами, содержащими данные в формате JSON.
  *
  * <p>Этот класс предоставляет методы для загрузки входных данных из файла и сохранения выходных данных
  * в файл с использованием библиотеки Jackson для сериализации и десериализации объектов.</p>
+ *
+ * <p>Объекты чтения {@link InputData} и записи {@link OutputData} создаются один раз в конструкторе:
+ * сериализаторы и десериализаторы корневых типов подготавливаются заранее и переиспользуются.</p>
  */
-@RequiredArgsConstructor
 public class FileService {
 
-    private final ObjectMapper objectMapper;
+    private final ObjectReader inputReader;
+    private final ObjectWriter outputWriter;
+    private final ObjectWriter reportWriter;
+
+    /**
+     * Создает сервис и подготавливает объекты чтения входных и записи выходных данных.
+     *
+     * @param objectMapper объект для сериализации и десериализации JSON.
+     */
+    public FileService(ObjectMapper objectMapper) {
+        this.inputReader = objectMapper.readerFor(InputData.class);
+        this.outputWriter = objectMapper.writerFor(OutputData.class);
+        this.reportWriter = objectMapper.writerFor(LimitReport.class);
+    }
 
     /**
      * Метод для загрузки входных данных из файла.
@@ -29,19 +52,68 @@ public class FileService {
      * @throws IOException если произошла ошибка при чтении файла.
      */
     public InputData loadInputData(String filePath) throws IOException {
-        return objectMapper.readValue(new File(filePath), InputData.class);
+        return inputReader.readValue(new File(filePath));
+    }
+
+    /**
+     * Метод для загрузки входных данных из потока.
+     *
+     * <p>Поток закрывается после чтения.</p>
+     *
+     * @param inputStream поток с входными данными в формате JSON.
+     * @return объект {@link InputData}, загруженный из потока.
+     * @throws IOException если произошла ошибка при чтении потока.
+     */
+    public InputData loadInputData(InputStream inputStream) throws IOException {
+        try (InputStream in = inputStream) {
+            return inputReader.readValue(in);
+        }
     }
 
     /**
      * Метод для сохранения выходных данных в файл.
      *
-     * <p>Метод сериализует объект {@link OutputData} в JSON и сохраняет его в указанный файл.</p>
+     * <p>Метод сериализует объект {@link OutputData} в JSON и сохраняет его в указанный файл. Данные сначала
+     * записываются во временный файл в том же каталоге, который затем переименовывается, поэтому при сбое
+     * или прерывании записи прежнее содержимое файла сохраняется.</p>
      *
      * @param filePath   путь к файлу для сохранения данных.
      * @param outputData объект {@link OutputData}, который необходимо сохранить.
      * @throws IOException если произошла ошибка при записи в файл.
      */
     public void saveOutputData(String filePath, OutputData outputData) throws IOException {
-        objectMapper.writeValue(new File(filePath), outputData);
+        FileUtils.writeAtomically(Path.of(filePath),
+                tempFile -> outputWriter.writeValue(tempFile.toFile(), outputData));
+    }
+
+    /**
+     * Метод для сохранения отчета о близости к ограничениям по часам в файл.
+     *
+     * <p>Файл записывается так же, как выходные данные: через временный файл с последующим переименованием.</p>
+     *
+     * @param filePath    путь к файлу для сохранения отчета.
+     * @param limitReport объект {@link LimitReport}, который необходимо сохранить.
+     * @throws IOException если произошла ошибка при записи в файл.
+     */
+    public void saveLimitReport(String filePath, LimitReport limitReport) throws IOException {
+        FileUtils.writeAtomically(Path.of(filePath),
+                tempFile -> reportWriter.writeValue(tempFile.toFile(), limitReport));
+    }
+
+    /**
+     * Метод для получения списка файлов шардов входных данных.
+     *
+     * <p>Шардами считаются все файлы <code>*.json</code> указанного каталога, упорядоченные по имени.</p>
+     *
+     * @param directoryPath путь к каталогу с шардами.
+     * @return список путей к файлам шардов.
+     * @throws IOException если произошла ошибка при чтении каталога.
+     */
+    public List<Path> listInputShards(String directoryPath) throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(directoryPath))) {
+            return files.filter(file -> Files.isRegularFile(file) && file.getFileName().toString().endsWith(".json"))
+                    .sorted()
+                    .toList();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.example.data;
+
+import com.example.data.models.Flight;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Чтение временного двоичного файла с полетами специалистов, записанного {@link FlightRunWriter}.
+ *
+ * <p>Записи читаются последовательно методом {@link #next()}; после успешного вызова доступны
+ * идентификатор специалиста и полет текущей записи.</p>
+ */
+public class FlightRunReader implements Closeable {
+    private final DataInputStream in;
+    private long specialistId;
+    private Flight flight;
+
+    /**
+     * Открывает файл и проверяет сигнатуру.
+     *
+     * @param file       путь к файлу.
+     * @param bufferSize размер буфера чтения в байтах.
+     * @throws IOException если файл не удалось открыть или он имеет неверный формат.
+     */
+    public FlightRunReader(Path file, int bufferSize) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), bufferSize));
+        if (in.readInt() != FlightRunWriter.MAGIC) {
+            in.close();
+            throw new IOException("Неверный формат временного файла: " + file);
+        }
+    }
+
+    /**
+     * Читает следующую запись.
+     *
+     * @return <code>true</code>, если запись прочитана, <code>false</code> при достижении конца файла.
+     * @throws IOException если произошла ошибка при чтении или файл поврежден.
+     */
+    public boolean next() throws IOException {
+        try {
+            specialistId = in.readLong();
+        } catch (EOFException e) {
+            return false;
+        }
+        LocalDateTime takeoffTime = readTime();
+        LocalDateTime landingTime = readTime();
+        flight = new Flight(null, null, takeoffTime, landingTime, null, null, new long[]{specialistId});
+        return true;
+    }
+
+    /**
+     * Возвращает идентификатор специалиста текущей записи.
+     *
+     * @return идентификатор специалиста.
+     */
+    public long getSpecialistId() {
+        return specialistId;
+    }
+
+    /**
+     * Возвращает полет текущей записи. Полет содержит только время взлета и посадки,
+     * а экипаж состоит из специалиста текущей записи.
+     *
+     * @return полет.
+     */
+    public Flight getFlight() {
+        return flight;
+    }
+
+    private LocalDateTime readTime() throws IOException {
+        long epochSecond = in.readLong();
+        int nano = in.readInt();
+        if (epochSecond == FlightRunWriter.NO_TIME) {
+            return null;
+        }
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.data;
+
+import com.example.data.models.Flight;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Запись временного двоичного файла с полетами специалистов (run-файла).
+ *
+ * <p>Файл начинается с сигнатуры {@link #MAGIC}, за которой следуют записи фиксированной длины
+ * {@link #RECORD_BYTES}: идентификатор специалиста, время взлета и время посадки. Время хранится как
+ * секунды от эпохи (UTC) и наносекунды; отсутствующее время записывается как {@link Long#MIN_VALUE}.
+ * Файл читается классом {@link FlightRunReader}.</p>
+ */
+public class FlightRunWriter implements Closeable {
+    static final int MAGIC = 0x46525531;
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    /**
+     * Длина одной записи в байтах.
+     */
+    public static final int RECORD_BYTES = Long.BYTES + 2 * (Long.BYTES + Integer.BYTES);
+
+    private final DataOutputStream out;
+    private long records;
+
+    /**
+     * Создает файл и записывает сигнатуру.
+     *
+     * @param file       путь к файлу.
+     * @param bufferSize размер буфера записи в байтах.
+     * @throws IOException если файл не удалось создать.
+     */
+    public FlightRunWriter(Path file, int bufferSize) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), bufferSize));
+        out.writeInt(MAGIC);
+    }
+
+    /**
+     * Записывает полет для специалиста.
+     *
+     * @param specialistId идентификатор специалиста.
+     * @param flight       полет.
+     * @throws IOException если произошла ошибка при записи.
+     */
+    public void write(long specialistId, Flight flight) throws IOException {
+        out.writeLong(specialistId);
+        writeTime(flight.getTakeoffTime());
+        writeTime(flight.getLandingTime());
+        records++;
+    }
+
+    /**
+     * Возвращает количество записанных записей.
+     *
+     * @return количество записей.
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    private void writeTime(LocalDateTime time) throws IOException {
+        if (time == null) {
+            out.writeLong(NO_TIME);
+            out.writeInt(0);
+        } else {
+            out.writeLong(time.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(time.getNano());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
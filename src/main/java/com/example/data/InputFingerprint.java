@@ -0,0 +1,70 @@
+package com.example.data;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Вычисление отпечатка входного файла для ключа кеша.
+ *
+ * <p>Отпечаток состоит из размера файла, времени последнего изменения и контрольной суммы CRC32C.
+ * Небольшие файлы хешируются целиком, у больших файлов хешируются {@link #SAMPLES} блоков по
+ * {@link #SAMPLE_SIZE} байт, равномерно распределенных по файлу (включая начало и конец).</p>
+ *
+ * <p>Класс не предназначен для создания экземпляров.</p>
+ */
+public class InputFingerprint {
+    static final int SAMPLE_SIZE = 64 * 1024;
+    static final int SAMPLES = 8;
+
+    /**
+     * Закрытый конструктор для предотвращения создания экземпляров.
+     */
+    private InputFingerprint() {
+        throw new UnsupportedOperationException("Этот класс не предназначен для создания экземпляров");
+    }
+
+    /**
+     * Вычисляет отпечаток файла.
+     *
+     * @param file путь к файлу.
+     * @return отпечаток файла в виде строки, пригодной для имени файла.
+     * @throws IOException если файл не удалось прочитать.
+     */
+    public static String of(Path file) throws IOException {
+        long size = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        CRC32C checksum = new CRC32C();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(SAMPLE_SIZE);
+            if (size <= (long) SAMPLE_SIZE * SAMPLES) {
+                for (long position = 0; position < size; position += SAMPLE_SIZE) {
+                    update(checksum, channel, buffer, position);
+                }
+            } else {
+                long step = (size - SAMPLE_SIZE) / (SAMPLES - 1);
+                for (int sample = 0; sample < SAMPLES; sample++) {
+                    update(checksum, channel, buffer, sample * step);
+                }
+            }
+        }
+        return Long.toHexString(size) + "-" + Long.toHexString(modified) + "-" + Long.toHexString(checksum.getValue());
+    }
+
+    private static void update(CRC32C checksum, FileChannel channel, ByteBuffer buffer, long position)
+            throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        checksum.update(buffer);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.data;
+
+import com.example.utils.FileUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Дисковый кеш результатов обработки.
+ *
+ * <p>Каждая запись хранится в отдельном JSON-файле <code>&lt;ключ&gt;.json</code> в каталоге кеша.
+ * Ключ формируется из отпечатка входного файла (см. {@link InputFingerprint}). Время изменения файла
+ * записи обновляется при каждом чтении, поэтому при превышении ограничений по количеству записей
+ * или по суммарному размеру удаляются давно не использованные записи.</p>
+ *
+ * <p>Поврежденные записи удаляются и считаются отсутствующими.</p>
+ */
+@Slf4j
+public class OutputCache {
+    private static final String ENTRY_SUFFIX = ".json";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    /**
+     * Создает кеш.
+     *
+     * @param objectMapper объект для сериализации записей в JSON.
+     * @param directory    каталог кеша.
+     * @param maxEntries   максимальное количество записей.
+     * @param maxBytes     максимальный суммарный размер записей в байтах.
+     * @throws IllegalArgumentException если ограничения меньше единицы.
+     */
+    public OutputCache(ObjectMapper objectMapper, Path directory, int maxEntries, long maxBytes) {
+        if (maxEntries < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("Ограничения кеша должны быть больше нуля.");
+        }
+        this.objectMapper = objectMapper;
+        this.directory = directory;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Возвращает запись кеша.
+     *
+     * @param key  ключ записи.
+     * @param type тип записи.
+     * @param <T>  тип записи.
+     * @return запись кеша или пустой {@link Optional}, если запись отсутствует или повреждена.
+     */
+    public synchronized <T> Optional<T> get(String key, Class<T> type) {
+        Path entry = entryFile(key);
+        if (!Files.isRegularFile(entry)) {
+            log.debug("Запись кеша {} не найдена.", key);
+            return Optional.empty();
+        }
+        try {
+            T value = objectMapper.readValue(entry.toFile(), type);
+            Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+            log.debug("Запись кеша {} найдена.", key);
+            return Optional.of(value);
+        } catch (IOException e) {
+            log.warn("Запись кеша {} повреждена и будет удалена: {}", key, e.getMessage());
+            deleteQuietly(entry);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Сохраняет запись в кеш и удаляет давно не использованные записи при превышении ограничений.
+     *
+     * @param key   ключ записи.
+     * @param value запись.
+     * @throws IOException если запись не удалось сохранить.
+     */
+    public synchronized void put(String key, Object value) throws IOException {
+        Files.createDirectories(directory);
+        FileUtils.writeAtomically(entryFile(key), tempFile -> objectMapper.writeValue(tempFile.toFile(), value));
+        log.debug("Запись кеша {} сохранена.", key);
+        evict();
+    }
+
+    /**
+     * Удаляет давно не использованные записи, пока кеш не уложится в ограничения.
+     *
+     * @throws IOException если произошла ошибка при чтении каталога кеша.
+     */
+    private void evict() throws IOException {
+        List<CacheEntry> entries = new ArrayList<>();
+        long totalBytes = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + ENTRY_SUFFIX)) {
+            for (Path file : files) {
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                entries.add(new CacheEntry(file, attributes.lastModifiedTime(), attributes.size()));
+                totalBytes += attributes.size();
+            }
+        }
+        entries.sort(Comparator.comparing(CacheEntry::lastUsed));
+
+        int count = entries.size();
+        for (CacheEntry entry : entries) {
+            if (count <= maxEntries && totalBytes <= maxBytes) {
+                break;
+            }
+            deleteQuietly(entry.file());
+            count--;
+            totalBytes -= entry.size();
+            log.debug("Запись кеша {} удалена.", entry.file().getFileName());
+        }
+    }
+
+    private Path entryFile(String key) {
+        return directory.resolve(key + ENTRY_SUFFIX);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить файл {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Файл записи кеша с временем последнего использования и размером.
+     */
+    private record CacheEntry(Path file, FileTime lastUsed, long size) {
+    }
+}
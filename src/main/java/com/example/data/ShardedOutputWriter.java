@@ -0,0 +1,309 @@
+package com.example.data;
+
+import com.example.data.models.OutputData;
+import com.example.data.models.ShardManifest;
+import com.example.data.models.ShardManifestEntry;
+import com.example.data.models.Specialist;
+import com.example.utils.FileUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Сервис для сохранения выходных данных в несколько файлов (шардов).
+ *
+ * <p>Специалисты раскладываются либо по одному в файл (<code>shardCount = 0</code>), либо по
+ * <code>shardCount</code> файлам в зависимости от хеша идентификатора. Файлы записываются параллельно,
+ * каждый файл содержит JSON-массив специалистов. Сводки по воздушным судам и аэропортам сохраняются
+ * в отдельный файл <code>utilization.json</code>.</p>
+ *
+ * <p>Каждый запуск пишет шарды и сводки в новый каталог поколения <code>generation-N</code>, который
+ * не виден читателям до публикации. Поколение публикуется атомарной заменой индекса
+ * <code>manifest.json</code> (см. {@link ShardManifest}): пути файлов и смещения в индексе указывают
+ * на файлы его поколения, которые не изменяются после записи. Поэтому читатель, открывший любой
+ * индекс, видит согласованный набор файлов, а не смесь данных разных запусков. Каталоги предыдущих
+ * поколений удаляются после публикации.</p>
+ */
+@Slf4j
+public class ShardedOutputWriter {
+    public static final String MANIFEST_FILE_NAME = "manifest.json";
+    public static final String UTILIZATION_FILE_NAME = "utilization.json";
+
+    private static final String GENERATION_PREFIX = "generation-";
+    private static final String SHARD_FILE_PREFIX = "shard-";
+    private static final String SPECIALIST_FILE_PREFIX = "specialist-";
+    private static final String JSON_SUFFIX = ".json";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final ObjectMapper objectMapper;
+    private final int shardCount;
+    private final int writerThreads;
+
+    /**
+     * Создает сервис шардированной записи.
+     *
+     * @param objectMapper  объект для сериализации данных в JSON.
+     * @param shardCount    количество шардов; <code>0</code> — отдельный файл для каждого специалиста.
+     * @param writerThreads количество потоков записи.
+     * @throws IllegalArgumentException если количество шардов отрицательно или количество потоков меньше единицы.
+     */
+    public ShardedOutputWriter(ObjectMapper objectMapper, int shardCount, int writerThreads) {
+        if (shardCount < 0) {
+            throw new IllegalArgumentException("Количество шардов не может быть отрицательным.");
+        }
+        if (writerThreads < 1) {
+            throw new IllegalArgumentException("Количество потоков записи должно быть больше нуля.");
+        }
+        this.objectMapper = objectMapper;
+        this.shardCount = shardCount;
+        this.writerThreads = writerThreads;
+    }
+
+    /**
+     * Сохраняет выходные данные в указанный каталог.
+     *
+     * <p>Каталог создается при необходимости. После публикации индекса удаляются каталоги других
+     * поколений (предыдущего и прерванных запусков) и временные файлы индекса.</p>
+     *
+     * @param directory  каталог для сохранения шардов.
+     * @param outputData объект {@link OutputData}, который необходимо сохранить.
+     * @return индекс сохраненных данных.
+     * @throws IOException если произошла ошибка при записи.
+     */
+    public ShardManifest write(Path directory, OutputData outputData) throws IOException {
+        Files.createDirectories(directory);
+        String generation = GENERATION_PREFIX + nextGeneration(directory);
+        Path generationDirectory = Files.createDirectory(directory.resolve(generation));
+        Map<String, List<Specialist>> shards = groupByShard(outputData.getSpecialists());
+        log.debug("Сохранение {} специалистов в {} файлов поколения {}.", outputData.getSpecialists().size(),
+                shards.size(), generation);
+
+        List<ShardManifestEntry> entries = writeShards(generationDirectory, generation, shards);
+        OutputData utilization = utilizationOf(outputData);
+        writeFile(generationDirectory.resolve(UTILIZATION_FILE_NAME),
+                out -> objectMapper.writeValue(out, utilization));
+        entries.sort(Comparator.comparing(ShardManifestEntry::getId));
+
+        ShardManifest manifest = new ShardManifest(shardCount, generation + "/" + UTILIZATION_FILE_NAME, entries);
+        FileUtils.writeAtomically(directory.resolve(MANIFEST_FILE_NAME),
+                tempFile -> writeFile(tempFile, out -> objectMapper.writeValue(out, manifest)));
+        log.debug("Индекс шардов поколения {} сохранен: {} записей.", generation, entries.size());
+
+        deleteStaleFiles(directory, generation);
+        return manifest;
+    }
+
+    /**
+     * Возвращает номер следующего поколения: на единицу больше наибольшего номера существующих
+     * каталогов поколений, в том числе оставшихся от прерванных запусков.
+     *
+     * @param directory каталог шардов.
+     * @return номер нового поколения.
+     * @throws IOException если произошла ошибка при чтении каталога.
+     */
+    private static long nextGeneration(Path directory) throws IOException {
+        long last = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, GENERATION_PREFIX + "*")) {
+            for (Path file : files) {
+                try {
+                    last = Math.max(last,
+                            Long.parseLong(file.getFileName().toString().substring(GENERATION_PREFIX.length())));
+                } catch (NumberFormatException e) {
+                    log.debug("Каталог {} не является каталогом поколения.", file);
+                }
+            }
+        }
+        return last + 1;
+    }
+
+    /**
+     * Возвращает сводки по воздушным судам и аэропортам без списка специалистов.
+     *
+     * @param outputData выходные данные.
+     * @return выходные данные, содержащие только сводки.
+     */
+    private static OutputData utilizationOf(OutputData outputData) {
+        OutputData utilization = new OutputData();
+        utilization.setSpecialists(List.of());
+        utilization.setAircraftUtilization(outputData.getAircraftUtilization());
+        utilization.setAirportMovements(outputData.getAirportMovements());
+        return utilization;
+    }
+
+    /**
+     * Распределяет специалистов по файлам шардов с сохранением исходного порядка внутри шарда.
+     *
+     * @param specialists список специалистов.
+     * @return карта "имя файла - специалисты шарда".
+     */
+    private Map<String, List<Specialist>> groupByShard(List<Specialist> specialists) {
+        Map<String, List<Specialist>> shards = new LinkedHashMap<>();
+        for (Specialist specialist : specialists) {
+            shards.computeIfAbsent(shardFileName(specialist.getId()), name -> new ArrayList<>()).add(specialist);
+        }
+        return shards;
+    }
+
+    /**
+     * Возвращает имя файла шарда для специалиста.
+     *
+     * @param specialistId идентификатор специалиста.
+     * @return имя файла шарда.
+     */
+    private String shardFileName(Long specialistId) {
+        if (shardCount == 0) {
+            return SPECIALIST_FILE_PREFIX + specialistId + JSON_SUFFIX;
+        }
+        int bucket = Math.floorMod(Long.hashCode(specialistId), shardCount);
+        return SHARD_FILE_PREFIX + String.format("%04d", bucket) + JSON_SUFFIX;
+    }
+
+    /**
+     * Параллельно записывает все шарды.
+     *
+     * @param directory  каталог поколения.
+     * @param generation имя каталога поколения относительно каталога шардов.
+     * @param shards     карта "имя файла - специалисты шарда".
+     * @return записи индекса для всех сохраненных специалистов.
+     * @throws IOException если запись хотя бы одного шарда завершилась ошибкой.
+     */
+    private List<ShardManifestEntry> writeShards(Path directory, String generation,
+                                                 Map<String, List<Specialist>> shards) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(writerThreads, Math.max(1, shards.size())));
+        try {
+            List<Future<List<ShardManifestEntry>>> futures = new ArrayList<>();
+            shards.forEach((fileName, specialists) ->
+                    futures.add(executor.submit(() -> writeShard(directory, generation, fileName, specialists))));
+
+            List<ShardManifestEntry> entries = new ArrayList<>();
+            for (Future<List<ShardManifestEntry>> future : futures) {
+                entries.addAll(future.get());
+            }
+            return entries;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Ошибка при записи шарда: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Запись шардов прервана.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Записывает один шард в виде JSON-массива и вычисляет смещения специалистов в файле.
+     *
+     * @param directory   каталог поколения.
+     * @param generation  имя каталога поколения относительно каталога шардов.
+     * @param fileName    имя файла шарда.
+     * @param specialists специалисты шарда.
+     * @return записи индекса для специалистов шарда.
+     * @throws IOException если произошла ошибка при записи.
+     */
+    private List<ShardManifestEntry> writeShard(Path directory, String generation, String fileName,
+                                                List<Specialist> specialists) throws IOException {
+        List<ShardManifestEntry> entries = new ArrayList<>(specialists.size());
+        String path = generation + "/" + fileName;
+        writeFile(directory.resolve(fileName), out -> {
+            long position = 0;
+            out.write('[');
+            position++;
+            for (int i = 0; i < specialists.size(); i++) {
+                if (i > 0) {
+                    out.write(',');
+                    position++;
+                }
+                Specialist specialist = specialists.get(i);
+                byte[] bytes = objectMapper.writeValueAsBytes(specialist);
+                out.write(bytes);
+                entries.add(new ShardManifestEntry(specialist.getId(), path, position, bytes.length));
+                position += bytes.length;
+            }
+            out.write(']');
+        });
+        log.trace("Шард {} сохранен: {} специалистов.", fileName, specialists.size());
+        return entries;
+    }
+
+    /**
+     * Создает новый файл и записывает его через буферизованный поток.
+     *
+     * @param file    путь к файлу.
+     * @param content функция, записывающая содержимое файла.
+     * @throws IOException если файл уже существует или произошла ошибка при записи.
+     */
+    private static void writeFile(Path file, ContentWriter content) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE))) {
+            content.write(out);
+        }
+    }
+
+    /**
+     * Удаляет каталоги поколений, кроме опубликованного, временные файлы индекса, оставшиеся
+     * от прерванной записи, а также файлы шардов и сводок, записанные прежними версиями приложения
+     * прямо в каталог шардов. Другие файлы не затрагиваются.
+     *
+     * @param directory  каталог шардов.
+     * @param generation имя опубликованного каталога поколения.
+     * @throws IOException если произошла ошибка при чтении каталога.
+     */
+    private static void deleteStaleFiles(Path directory, String generation) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(GENERATION_PREFIX) && !name.equals(generation) && Files.isDirectory(file)) {
+                    deleteGeneration(file);
+                    log.debug("Удален каталог устаревшего поколения {}.", file);
+                } else if (name.endsWith(TEMP_SUFFIX) && name.startsWith(MANIFEST_FILE_NAME + ".")
+                        || isLegacyFile(name)) {
+                    Files.deleteIfExists(file);
+                    log.debug("Удален устаревший файл {}.", file);
+                }
+            }
+        }
+    }
+
+    private static boolean isLegacyFile(String name) {
+        boolean isShard = name.startsWith(SHARD_FILE_PREFIX) || name.startsWith(SPECIALIST_FILE_PREFIX);
+        return isShard && (name.endsWith(JSON_SUFFIX) || name.endsWith(TEMP_SUFFIX))
+                || name.equals(UTILIZATION_FILE_NAME)
+                || name.startsWith(UTILIZATION_FILE_NAME + ".") && name.endsWith(TEMP_SUFFIX);
+    }
+
+    private static void deleteGeneration(Path generationDirectory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(generationDirectory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(generationDirectory);
+    }
+
+    /**
+     * Функция записи содержимого файла.
+     */
+    @FunctionalInterface
+    private interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.data.json;
+
+import com.example.data.models.Flight;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Десериализатор {@link Flight} без использования рефлексии.
+ *
+ * <p>Имена полей сравниваются с канонизированными строками из таблицы символов парсера, поэтому для них
+ * не создаются новые строки. Время вылета и посадки разбирается непосредственно из символьного буфера
+ * парсера (см. {@link IsoLocalDateTimeParser}), а состав экипажа читается в массив примитивов.</p>
+ *
+ * <p>Значения, которые не удается разобрать быстрым способом (другой формат даты, числа в строках и т.п.),
+ * передаются стандартным десериализаторам Jackson, поэтому результат и ошибки совпадают
+ * с обычной десериализацией.</p>
+ */
+public class FlightDeserializer extends StdDeserializer<Flight> implements ResolvableDeserializer {
+    private static final int INITIAL_CREW_CAPACITY = 4;
+
+    private transient JsonDeserializer<Object> dateTimeDeserializer;
+
+    public FlightDeserializer() {
+        super(Flight.class);
+    }
+
+    @Override
+    public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+        dateTimeDeserializer = ctxt.findRootValueDeserializer(ctxt.constructType(LocalDateTime.class));
+    }
+
+    @Override
+    public Flight deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME) {
+            return (Flight) ctxt.handleUnexpectedToken(Flight.class, p);
+        }
+
+        Flight flight = new Flight();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "aircraft_type" -> flight.setAircraftType(JsonValues.readString(p, ctxt));
+                case "aircraft_number" -> flight.setAircraftNumber(readInteger(p, ctxt));
+                case "takeoff_time" -> flight.setTakeoffTime(readDateTime(p, ctxt));
+                case "landing_time" -> flight.setLandingTime(readDateTime(p, ctxt));
+                case "departure_airport" -> flight.setDepartureAirport(JsonValues.readString(p, ctxt));
+                case "arrival_airport" -> flight.setArrivalAirport(JsonValues.readString(p, ctxt));
+                case "crew" -> flight.setCrew(readCrew(p, ctxt));
+                case "flightDurationHours", "takeoffMonth" -> p.skipChildren();
+                default -> ctxt.handleUnknownProperty(p, this, Flight.class, field);
+            }
+        }
+        return flight;
+    }
+
+    private static Integer readInteger(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_NUMBER_INT -> p.getIntValue();
+            case VALUE_NULL -> null;
+            default -> ctxt.readValue(p, Integer.class);
+        };
+    }
+
+    private LocalDateTime readDateTime(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_STRING) {
+            LocalDateTime value = IsoLocalDateTimeParser.parse(p.getTextCharacters(), p.getTextOffset(),
+                    p.getTextLength());
+            if (value != null) {
+                return value;
+            }
+        }
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return (LocalDateTime) dateTimeDeserializer.deserialize(p, ctxt);
+    }
+
+    /**
+     * Читает состав экипажа в массив примитивов.
+     *
+     * @param p    парсер, установленный на начало массива.
+     * @param ctxt контекст десериализации.
+     * @return идентификаторы членов экипажа или <code>null</code>, если значение равно <code>null</code>.
+     * @throws IOException если значение не является массивом идентификаторов.
+     */
+    private long[] readCrew(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            ctxt.reportInputMismatch(this, "Поле crew должно быть массивом идентификаторов специалистов.");
+        }
+        long[] crew = new long[INITIAL_CREW_CAPACITY];
+        int size = 0;
+        for (JsonToken token = p.nextToken(); token != JsonToken.END_ARRAY; token = p.nextToken()) {
+            if (size == crew.length) {
+                crew = Arrays.copyOf(crew, size * 2);
+            }
+            crew[size++] = token == JsonToken.VALUE_NUMBER_INT ? p.getLongValue() : readCrewMember(p, ctxt);
+        }
+        return size == crew.length ? crew : Arrays.copyOf(crew, size);
+    }
+
+    private long readCrewMember(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            ctxt.reportInputMismatch(this, "Идентификатор члена экипажа не может быть null.");
+        }
+        return ctxt.readValue(p, Long.class);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.data.json;
+
+import com.example.data.models.Flight;
+import com.example.data.models.InputData;
+import com.example.data.models.Specialist;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+
+/**
+ * Модуль Jackson с десериализаторами входных данных.
+ *
+ * <p>Регистрирует {@link FlightDeserializer}, {@link SpecialistDeserializer} и {@link InputDataDeserializer}
+ * вместо десериализаторов на основе рефлексии. Сериализация выходных данных не меняется.
+ * Модуль регистрируется вместе с <code>JavaTimeModule</code>, который используется для дат
+ * в нестандартном формате.</p>
+ */
+public class FlightTimeTrackerModule extends SimpleModule {
+
+    public FlightTimeTrackerModule() {
+        super("FlightTimeTrackerModule");
+        addDeserializer(Flight.class, new FlightDeserializer());
+        addDeserializer(Specialist.class, new SpecialistDeserializer());
+        addDeserializer(InputData.class, new InputDataDeserializer());
+    }
+}
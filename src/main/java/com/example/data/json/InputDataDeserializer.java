@@ -0,0 +1,74 @@
+package com.example.data.json;
+
+import com.example.data.models.Flight;
+import com.example.data.models.InputData;
+import com.example.data.models.Specialist;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Десериализатор {@link InputData}.
+ *
+ * <p>Элементы списков рейсов и специалистов читаются напрямую десериализаторами {@link FlightDeserializer}
+ * и {@link SpecialistDeserializer}, без поиска десериализатора для каждого элемента.</p>
+ */
+public class InputDataDeserializer extends StdDeserializer<InputData> {
+
+    public InputDataDeserializer() {
+        super(InputData.class);
+    }
+
+    @Override
+    public InputData deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME) {
+            return (InputData) ctxt.handleUnexpectedToken(InputData.class, p);
+        }
+
+        InputData inputData = new InputData();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "flights" -> inputData.setFlights(readList(p, ctxt, Flight.class));
+                case "specialists" -> inputData.setSpecialists(readList(p, ctxt, Specialist.class));
+                default -> ctxt.handleUnknownProperty(p, this, InputData.class, field);
+            }
+        }
+        return inputData;
+    }
+
+    /**
+     * Читает JSON-массив объектов указанного типа.
+     *
+     * @param p           парсер, установленный на начало массива.
+     * @param ctxt        контекст десериализации.
+     * @param elementType тип элементов.
+     * @return список элементов или <code>null</code>, если значение равно <code>null</code>.
+     * @throws IOException если значение не является массивом объектов указанного типа.
+     */
+    private <T> List<T> readList(JsonParser p, DeserializationContext ctxt, Class<T> elementType)
+            throws IOException {
+        if (p.currentToken() == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (p.currentToken() != JsonToken.START_ARRAY) {
+            ctxt.reportInputMismatch(this, "Поле входных данных должно быть массивом.");
+        }
+        JsonDeserializer<Object> deserializer = ctxt.findRootValueDeserializer(ctxt.constructType(elementType));
+        List<T> list = new ArrayList<>();
+        for (JsonToken token = p.nextToken(); token != JsonToken.END_ARRAY; token = p.nextToken()) {
+            list.add(token == JsonToken.VALUE_NULL ? null : elementType.cast(deserializer.deserialize(p, ctxt)));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.data.json;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+
+/**
+ * Разбор даты и времени в формате <code>yyyy-MM-ddTHH:mm[:ss[.SSSSSSSSS]]</code> непосредственно
+ * из символьного буфера парсера, без создания строки и без {@link java.time.format.DateTimeFormatter}.
+ * <p>
+ * Данный класс является утилитным и не должен создавать экземпляры.
+ * </p>
+ */
+public final class IsoLocalDateTimeParser {
+    private static final int MIN_LENGTH = "yyyy-MM-ddTHH:mm".length();
+    private static final int SECONDS_LENGTH = "yyyy-MM-ddTHH:mm:ss".length();
+    private static final int MAX_FRACTION_DIGITS = 9;
+
+    /**
+     * Приватный конструктор, чтобы предотвратить создание экземпляров данного класса.
+     */
+    private IsoLocalDateTimeParser() {
+        throw new UnsupportedOperationException("Этот класс не предназначен для создания экземпляров");
+    }
+
+    /**
+     * Разбирает дату и время из фрагмента символьного буфера.
+     *
+     * <p>Возвращает <code>null</code>, если фрагмент не соответствует формату или содержит недопустимые
+     * значения полей. В этом случае значение следует разобрать стандартным способом, чтобы получить
+     * такой же результат или такую же ошибку, как при обычной десериализации.</p>
+     *
+     * @param buffer символьный буфер.
+     * @param offset начало значения в буфере.
+     * @param length длина значения.
+     * @return дата и время или <code>null</code>, если значение не может быть разобрано быстрым способом.
+     */
+    public static LocalDateTime parse(char[] buffer, int offset, int length) {
+        if (length < MIN_LENGTH || (length > MIN_LENGTH && length < SECONDS_LENGTH)
+                || length == SECONDS_LENGTH + 1 || length > SECONDS_LENGTH + 1 + MAX_FRACTION_DIGITS) {
+            return null;
+        }
+        if (buffer[offset + 4] != '-' || buffer[offset + 7] != '-' || buffer[offset + 10] != 'T'
+                || buffer[offset + 13] != ':') {
+            return null;
+        }
+        int year = digits(buffer, offset, 4);
+        int month = digits(buffer, offset + 5, 2);
+        int day = digits(buffer, offset + 8, 2);
+        int hour = digits(buffer, offset + 11, 2);
+        int minute = digits(buffer, offset + 14, 2);
+        int second = 0;
+        int nano = 0;
+        if (length >= SECONDS_LENGTH) {
+            if (buffer[offset + 16] != ':') {
+                return null;
+            }
+            second = digits(buffer, offset + 17, 2);
+            if (length > SECONDS_LENGTH) {
+                if (buffer[offset + SECONDS_LENGTH] != '.') {
+                    return null;
+                }
+                int fractionDigits = length - SECONDS_LENGTH - 1;
+                nano = digits(buffer, offset + SECONDS_LENGTH + 1, fractionDigits);
+                for (int i = fractionDigits; i < MAX_FRACTION_DIGITS && nano >= 0; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        if ((year | month | day | hour | minute | second | nano) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Разбирает неотрицательное десятичное число фиксированной длины.
+     *
+     * @param buffer символьный буфер.
+     * @param offset начало числа.
+     * @param count  количество цифр.
+     * @return значение числа или <code>-1</code>, если встретился символ, не являющийся цифрой.
+     */
+    private static int digits(char[] buffer, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.data.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+
+/**
+ * Утилитный класс для чтения простых значений в десериализаторах моделей.
+ * <p>
+ * Данный класс является утилитным и не должен создавать экземпляры.
+ * </p>
+ */
+final class JsonValues {
+
+    /**
+     * Приватный конструктор, чтобы предотвратить создание экземпляров данного класса.
+     */
+    private JsonValues() {
+        throw new UnsupportedOperationException("Этот класс не предназначен для создания экземпляров");
+    }
+
+    /**
+     * Читает строковое значение текущего токена.
+     *
+     * <p>Значения других типов (например, числа) преобразуются стандартным десериализатором Jackson.</p>
+     *
+     * @param p    парсер, установленный на значение.
+     * @param ctxt контекст десериализации.
+     * @return строка или <code>null</code>, если значение равно <code>null</code>.
+     * @throws IOException если значение не может быть преобразовано в строку.
+     */
+    static String readString(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_STRING -> p.getText();
+            case VALUE_NULL -> null;
+            default -> ctxt.readValue(p, String.class);
+        };
+    }
+
+    /**
+     * Читает целочисленное значение текущего токена.
+     *
+     * @param p    парсер, установленный на значение.
+     * @param ctxt контекст десериализации.
+     * @return число или <code>null</code>, если значение равно <code>null</code>.
+     * @throws IOException если значение не может быть преобразовано в число.
+     */
+    static Long readLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_NUMBER_INT -> p.getLongValue();
+            case VALUE_NULL -> null;
+            default -> ctxt.readValue(p, Long.class);
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.data.json;
+
+import com.example.data.models.MonthlyData;
+import com.example.data.models.Specialist;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.deser.ResolvableDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Десериализатор {@link Specialist} без использования рефлексии.
+ *
+ * <p>Идентификатор и имя читаются напрямую из парсера. Данные по месяцам во входных файлах обычно
+ * отсутствуют, поэтому при их наличии используется стандартный десериализатор списка {@link MonthlyData}.</p>
+ */
+public class SpecialistDeserializer extends StdDeserializer<Specialist> implements ResolvableDeserializer {
+    private transient JsonDeserializer<Object> monthlyDataDeserializer;
+
+    public SpecialistDeserializer() {
+        super(Specialist.class);
+    }
+
+    @Override
+    public void resolve(DeserializationContext ctxt) throws JsonMappingException {
+        monthlyDataDeserializer = ctxt.findRootValueDeserializer(
+                ctxt.getTypeFactory().constructCollectionType(List.class, MonthlyData.class));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Specialist deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME) {
+            return (Specialist) ctxt.handleUnexpectedToken(Specialist.class, p);
+        }
+
+        Specialist specialist = new Specialist();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String field = p.currentName();
+            p.nextToken();
+            switch (field) {
+                case "id" -> specialist.setId(JsonValues.readLong(p, ctxt));
+                case "name" -> specialist.setName(JsonValues.readString(p, ctxt));
+                case "monthlyData" -> specialist.setMonthlyData(p.currentToken() == JsonToken.VALUE_NULL
+                        ? null
+                        : (List<MonthlyData>) monthlyDataDeserializer.deserialize(p, ctxt));
+                default -> ctxt.handleUnknownProperty(p, this, Specialist.class, field);
+            }
+        }
+        return specialist;
+    }
+}
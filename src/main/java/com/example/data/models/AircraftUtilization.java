@@ -0,0 +1,22 @@
+package com.example.data.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Модель данных для представления налета воздушного судна за месяц.
+ *
+ * <p>Содержит тип и бортовой номер воздушного судна, месяц в формате <code>yyyy-MM</code>,
+ * количество часов полета, приходящихся на этот месяц, и количество рейсов с вылетом в этом месяце.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AircraftUtilization {
+    private String aircraftType;
+    private Integer aircraftNumber;
+    private String month;
+    private long flightTimeHours;
+    private long flights;
+}
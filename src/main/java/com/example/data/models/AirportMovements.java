@@ -0,0 +1,20 @@
+package com.example.data.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Модель данных для представления количества движений (вылетов и прилетов) в аэропорту за месяц.
+ *
+ * <p>Вылет учитывается в месяце взлета, прилет — в месяце посадки.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class AirportMovements {
+    private String airport;
+    private String month;
+    private long departures;
+    private long arrivals;
+}
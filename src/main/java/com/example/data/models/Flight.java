@@ -1,5 +1,6 @@
 package com.example.data.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -17,6 +18,9 @@ import java.util.List;
  * воздушного судна, времени вылета и посадки, аэропортах отправления и прибытия, а также
  * о составе экипажа. В класс встроены методы для вычисления продолжительности рейса и
  * форматирования времени вылета.</p>
+ *
+ * <p>Состав экипажа хранится в массиве примитивов <code>long[]</code>, в JSON он представлен
+ * массивом идентификаторов специалистов.</p>
  */
 @Data
 @AllArgsConstructor
@@ -41,13 +45,31 @@ public class Flight {
     private String arrivalAirport;
 
     @JsonProperty("crew")
-    private List<Long> crew;
+    private long[] crew;
+
+    /**
+     * Создает рейс с составом экипажа, заданным списком идентификаторов.
+     *
+     * @param aircraftType     тип воздушного судна.
+     * @param aircraftNumber   номер воздушного судна.
+     * @param takeoffTime      время вылета.
+     * @param landingTime      время посадки.
+     * @param departureAirport аэропорт отправления.
+     * @param arrivalAirport   аэропорт прибытия.
+     * @param crew             идентификаторы специалистов экипажа.
+     */
+    public Flight(String aircraftType, Integer aircraftNumber, LocalDateTime takeoffTime, LocalDateTime landingTime,
+                  String departureAirport, String arrivalAirport, List<Long> crew) {
+        this(aircraftType, aircraftNumber, takeoffTime, landingTime, departureAirport, arrivalAirport,
+                crew.stream().mapToLong(Long::longValue).toArray());
+    }
 
     /**
      * Метод для вычисления продолжительности рейса в часах, основанный на времени вылета и посадки.
      *
      * @return продолжительность рейса в часах.
      */
+    @JsonIgnore
     public long getFlightDurationHours() {
         return DateUtils.calculateFlightDuration(takeoffTime, landingTime);
     }
@@ -57,6 +79,7 @@ public class Flight {
      *
      * @return месяц вылета или <code>null</code>, если время вылета не задано.
      */
+    @JsonIgnore
     public String getTakeoffMonth() {
         if (takeoffTime != null) {
             return takeoffTime.format(DateTimeFormatter.ofPattern("yyyy-MM"));
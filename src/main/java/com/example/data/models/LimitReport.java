@@ -0,0 +1,24 @@
+package com.example.data.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Модель данных для отчета о специалистах, близких к ограничениям по часам полета.
+ *
+ * <p>Содержит параметры отчета и отчеты по месяцам ({@link MonthlyLimitReport}), упорядоченные по месяцу.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LimitReport {
+    private long monthlyHoursLimit;
+    private int closestToMonthlyLimitCount;
+    private long weeklyHoursLimit;
+    private long weeklyMarginHours;
+    private List<MonthlyLimitReport> months = new ArrayList<>();
+}
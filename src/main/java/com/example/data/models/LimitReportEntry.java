@@ -0,0 +1,20 @@
+package com.example.data.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Модель данных для строки отчета о близости к ограничениям по часам.
+ *
+ * <p>Содержит идентификатор и имя специалиста и количество часов: налет за месяц в разделе
+ * ограничения за месяц или максимальный налет за неделю в разделе ограничения за неделю.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class LimitReportEntry {
+    private Long id;
+    private String name;
+    private long hours;
+}
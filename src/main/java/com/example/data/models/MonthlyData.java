@@ -22,6 +22,10 @@ import lombok.extern.slf4j.Slf4j;
 @NoArgsConstructor
 @EqualsAndHashCode(of = "month")
 public class MonthlyData {
+    public static final long MONTHLY_HOURS_LIMIT = 80;
+    public static final long WEEKLY_HOURS_LIMIT = 36;
+    public static final long DAILY_HOURS_LIMIT = 8;
+
     private String month;
     private long flightTimeHours;
     private Flags flags = new Flags();
@@ -57,8 +61,8 @@ public class MonthlyData {
      * @param weeklyMaxHours максимальное количество рабочих часов в неделю.
      */
     public void updateFlags(long dailyMaxHours, long weeklyMaxHours) {
-        this.flags.setOver80Hours(this.flightTimeHours > 80);
-        this.flags.setWeeksOver36Hours(weeklyMaxHours > 36);
-        this.flags.setDaysOver8Hours(dailyMaxHours > 8);
+        this.flags.setOver80Hours(this.flightTimeHours > MONTHLY_HOURS_LIMIT);
+        this.flags.setWeeksOver36Hours(weeklyMaxHours > WEEKLY_HOURS_LIMIT);
+        this.flags.setDaysOver8Hours(dailyMaxHours > DAILY_HOURS_LIMIT);
     }
 }
\ No newline at end of file
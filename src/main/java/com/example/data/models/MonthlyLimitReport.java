@@ -0,0 +1,25 @@
+package com.example.data.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Модель данных для отчета о близости к ограничениям по часам за один месяц.
+ *
+ * <p>Список <code>closestToMonthlyLimit</code> содержит специалистов, чей налет за месяц ближе всего
+ * к ограничению в 80 часов, список <code>nearWeeklyLimit</code> — специалистов, чей максимальный налет
+ * за неделю отличается от ограничения в 36 часов не более чем на допустимую величину. Оба списка
+ * упорядочены по удаленности от ограничения, затем по идентификатору специалиста.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MonthlyLimitReport {
+    private String month;
+    private List<LimitReportEntry> closestToMonthlyLimit = new ArrayList<>();
+    private List<LimitReportEntry> nearWeeklyLimit = new ArrayList<>();
+}
@@ -1,5 +1,6 @@
 package com.example.data.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -11,8 +12,20 @@ import java.util.List;
  * <p>Этот класс представляет собой структуру данных, в которой хранится список специалистов,
  * который будет использоваться для вывода информации. Изначально список специалистов
  * инициализируется пустым.</p>
+ *
+ * <p>Дополнительно содержит сводки по налету воздушных судов ({@link AircraftUtilization})
+ * и движениям в аэропортах ({@link AirportMovements}) по месяцам.</p>
+ *
+ * <p>Отчет о близости к ограничениям по часам ({@link LimitReport}) сохраняется в отдельный файл.
+ * Поле отчета не сериализуется, поэтому отчет не попадает в выходной файл и шарды вывода, даже если
+ * вызывающий код не очистил его перед сохранением.</p>
  */
 @Data
 public class OutputData {
     private List<Specialist> specialists = new ArrayList<>();
+    private List<AircraftUtilization> aircraftUtilization = new ArrayList<>();
+    private List<AirportMovements> airportMovements = new ArrayList<>();
+
+    @JsonIgnore
+    private LimitReport limitReport;
 }
\ No newline at end of file
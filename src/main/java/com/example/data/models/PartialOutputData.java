@@ -0,0 +1,21 @@
+package com.example.data.models;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Модель промежуточных результатов обработки части входных данных (шарда).
+ *
+ * <p>Содержит специалистов шарда, часы полета по специалистам ({@link SpecialistHours}) и сводки по
+ * воздушным судам и аэропортам. Промежуточные результаты нескольких шардов объединяются в итоговые
+ * выходные данные без повторного чтения полетов.</p>
+ */
+@Data
+public class PartialOutputData {
+    private List<Specialist> specialists = new ArrayList<>();
+    private List<SpecialistHours> hours = new ArrayList<>();
+    private List<AircraftUtilization> aircraftUtilization = new ArrayList<>();
+    private List<AirportMovements> airportMovements = new ArrayList<>();
+}
@@ -0,0 +1,28 @@
+package com.example.data.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Модель индекса шардированного вывода.
+ *
+ * <p>Индекс сохраняется в файл <code>manifest.json</code> и позволяет прочитать данные одного
+ * специалиста без разбора остальных файлов: для каждого идентификатора указаны файл, смещение
+ * и длина в байтах.</p>
+ *
+ * <p>Поле <code>shardCount</code> равно <code>0</code>, если каждый специалист сохранен в отдельный файл.
+ * Пути файлов шардов и файла сводок <code>utilizationFile</code> указываются относительно каталога индекса
+ * и ведут в каталог поколения, записанного вместе с индексом.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShardManifest {
+    private int shardCount;
+    private String utilizationFile;
+    private List<ShardManifestEntry> entries = new ArrayList<>();
+}
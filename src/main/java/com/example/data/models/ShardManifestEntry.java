@@ -0,0 +1,21 @@
+package com.example.data.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Запись индекса шардированного вывода.
+ *
+ * <p>Содержит идентификатор специалиста, путь к файлу шарда относительно каталога индекса, а также смещение и длину
+ * JSON-объекта специалиста внутри этого файла в байтах.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ShardManifestEntry {
+    private Long id;
+    private String file;
+    private long offset;
+    private long length;
+}
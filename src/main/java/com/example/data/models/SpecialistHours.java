@@ -0,0 +1,35 @@
+package com.example.data.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Модель промежуточных данных о часах полета одного специалиста.
+ *
+ * <p>Содержит часы полета по месяцам и по дням. Данные, рассчитанные по разным частям входных данных,
+ * объединяются суммированием (см. {@link #merge(SpecialistHours)}), после чего по ним вычисляются
+ * итоговые данные по месяцам и флаги.</p>
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SpecialistHours {
+    private Long id;
+    private Map<String, Long> monthlyHours = new HashMap<>();
+    private Map<LocalDate, Long> dailyHours = new HashMap<>();
+
+    /**
+     * Добавляет к текущим данным часы из других данных того же специалиста.
+     *
+     * @param other данные, которые необходимо добавить.
+     */
+    public void merge(SpecialistHours other) {
+        other.getMonthlyHours().forEach((month, hours) -> monthlyHours.merge(month, hours, Long::sum));
+        other.getDailyHours().forEach((date, hours) -> dailyHours.merge(date, hours, Long::sum));
+    }
+}
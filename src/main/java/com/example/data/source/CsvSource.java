@@ -0,0 +1,422 @@
+package com.example.data.source;
+
+import com.example.data.json.IsoLocalDateTimeParser;
+import com.example.data.models.Flight;
+import com.example.data.models.Specialist;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/**
+ * Источник входных данных в формате CSV: полеты и специалисты находятся в отдельных файлах.
+ *
+ * <p>Первая строка файла полетов — заголовок с именами столбцов, совпадающими с именами полей полета во
+ * входном JSON-файле: <code>aircraft_type</code>, <code>aircraft_number</code>, <code>takeoff_time</code>,
+ * <code>landing_time</code>, <code>departure_airport</code>, <code>arrival_airport</code> и <code>crew</code>.
+ * Порядок столбцов произвольный, неизвестные столбцы пропускаются, пустое значение соответствует
+ * <code>null</code>. Состав экипажа записывается идентификаторами специалистов через точку с запятой.
+ * Файл специалистов содержит столбцы <code>id</code> и <code>name</code>.</p>
+ *
+ * <p>Значения можно заключать в двойные кавычки, кавычка внутри значения записывается двумя кавычками.
+ * Переводы строк внутри значений не поддерживаются: каждая запись занимает одну строку.</p>
+ *
+ * <p>Строки разбираются непосредственно из байтового буфера {@link LineReader}: время разбирается
+ * {@link IsoLocalDateTimeParser}, числа — без создания строк, а повторяющиеся типы судов и коды
+ * аэропортов берутся из таблицы уже созданных строк. Файл полетов делится на части по диапазонам байт;
+ * специалисты читаются частью, начинающейся с начала файла, перед ее полетами.</p>
+ */
+@Slf4j
+public class CsvSource extends LineRangeSource {
+    private static final String[] FLIGHT_COLUMNS = {"aircraft_type", "aircraft_number", "takeoff_time",
+            "landing_time", "departure_airport", "arrival_airport", "crew"};
+    private static final String[] SPECIALIST_COLUMNS = {"id", "name"};
+    private static final int AIRCRAFT_TYPE = 0;
+    private static final int AIRCRAFT_NUMBER = 1;
+    private static final int TAKEOFF_TIME = 2;
+    private static final int LANDING_TIME = 3;
+    private static final int DEPARTURE_AIRPORT = 4;
+    private static final int ARRIVAL_AIRPORT = 5;
+    private static final int CREW = 6;
+    private static final int ID = 0;
+    private static final int NAME = 1;
+    private static final int MAX_DATE_TIME_LENGTH = 32;
+    private static final int INITIAL_CREW_CAPACITY = 4;
+    private static final long[] NO_CREW = new long[0];
+
+    private final Path specialistsFile;
+
+    /**
+     * Создает источник для всего файла полетов.
+     *
+     * @param flightsFile     путь к CSV-файлу полетов.
+     * @param specialistsFile путь к CSV-файлу специалистов или <code>null</code>, если специалистов нет.
+     */
+    public CsvSource(Path flightsFile, Path specialistsFile) {
+        this(flightsFile, specialistsFile, UnaryOperator.identity());
+    }
+
+    /**
+     * Создает источник для всего файла полетов, читающий файлы через обертку потока, например для учета
+     * прочитанных байт. Заголовки, которые каждая часть читает повторно, читаются без обертки.
+     *
+     * @param flightsFile     путь к CSV-файлу полетов.
+     * @param specialistsFile путь к CSV-файлу специалистов или <code>null</code>, если специалистов нет.
+     * @param streamWrapper   обертка потоков чтения файлов.
+     */
+    public CsvSource(Path flightsFile, Path specialistsFile, UnaryOperator<InputStream> streamWrapper) {
+        this(flightsFile, specialistsFile, streamWrapper, 0, Long.MAX_VALUE);
+    }
+
+    private CsvSource(Path flightsFile, Path specialistsFile, UnaryOperator<InputStream> streamWrapper,
+                      long start, long end) {
+        super(flightsFile, streamWrapper, start, end);
+        this.specialistsFile = specialistsFile;
+    }
+
+    @Override
+    public void read(Sink sink) throws IOException {
+        Fields fields = new Fields();
+        if (start == 0 && specialistsFile != null) {
+            readSpecialists(sink, fields);
+        }
+        readFlights(sink, fields);
+    }
+
+    /**
+     * Возвращает размер диапазона файла полетов, а для части, начинающейся с начала файла, — вместе
+     * с размером файла специалистов.
+     */
+    @Override
+    public long size() throws IOException {
+        return rangeSize() + (start == 0 && specialistsFile != null ? Files.size(specialistsFile) : 0);
+    }
+
+    @Override
+    FlightSource part(long partStart, long partEnd) {
+        return new CsvSource(file, specialistsFile, streamWrapper, partStart, partEnd);
+    }
+
+    private void readSpecialists(Sink sink, Fields fields) throws IOException {
+        int[] columns = readHeader(specialistsFile, SPECIALIST_COLUMNS, fields);
+        try (LineReader lines = new LineReader(specialistsFile, 0, Long.MAX_VALUE, streamWrapper)) {
+            lines.next();
+            while (lines.next()) {
+                if (!fields.split(lines, specialistsFile, columns.length)) {
+                    continue;
+                }
+                Specialist specialist = new Specialist();
+                for (int column = 0; column < columns.length; column++) {
+                    if (fields.isEmpty(column)) {
+                        continue;
+                    }
+                    switch (columns[column]) {
+                        case ID -> specialist.setId(fields.parseLong(column, lines, specialistsFile));
+                        case NAME -> specialist.setName(fields.text(column));
+                        default -> {
+                        }
+                    }
+                }
+                sink.specialist(specialist);
+            }
+        }
+    }
+
+    private void readFlights(Sink sink, Fields fields) throws IOException {
+        int[] columns = readHeader(file, FLIGHT_COLUMNS, fields);
+        try (LineReader lines = new LineReader(file, start, end, streamWrapper)) {
+            StringTable strings = new StringTable();
+            while (lines.next()) {
+                if (lines.lineOffset() == 0 || !fields.split(lines, file, columns.length)) {
+                    continue;
+                }
+                Flight flight = new Flight();
+                flight.setCrew(NO_CREW);
+                for (int column = 0; column < columns.length; column++) {
+                    if (fields.isEmpty(column)) {
+                        continue;
+                    }
+                    switch (columns[column]) {
+                        case AIRCRAFT_TYPE -> flight.setAircraftType(strings.get(fields, column));
+                        case AIRCRAFT_NUMBER -> flight.setAircraftNumber(fields.parseInt(column, lines, file));
+                        case TAKEOFF_TIME -> flight.setTakeoffTime(fields.parseDateTime(column, lines, file));
+                        case LANDING_TIME -> flight.setLandingTime(fields.parseDateTime(column, lines, file));
+                        case DEPARTURE_AIRPORT -> flight.setDepartureAirport(strings.get(fields, column));
+                        case ARRIVAL_AIRPORT -> flight.setArrivalAirport(strings.get(fields, column));
+                        case CREW -> flight.setCrew(fields.parseCrew(column, lines, file));
+                        default -> {
+                        }
+                    }
+                }
+                sink.flight(flight);
+            }
+        }
+    }
+
+    /**
+     * Читает заголовок файла и сопоставляет столбцы известным полям.
+     *
+     * @param file   путь к файлу.
+     * @param known  имена известных столбцов.
+     * @param fields разбор значений строки.
+     * @return номер известного поля для каждого столбца или <code>-1</code> для неизвестного столбца.
+     * @throws IOException если файл пуст или заголовок имеет неверный формат.
+     */
+    private static int[] readHeader(Path file, String[] known, Fields fields) throws IOException {
+        try (LineReader lines = new LineReader(file, 0, Long.MAX_VALUE)) {
+            if (!lines.next() || !fields.split(lines, file, -1)) {
+                throw new IOException("CSV-файл должен начинаться с заголовка: " + file);
+            }
+            int[] columns = new int[fields.count];
+            for (int column = 0; column < columns.length; column++) {
+                String name = fields.text(column).trim();
+                columns[column] = Arrays.asList(known).indexOf(name);
+                if (columns[column] < 0) {
+                    log.warn("Столбец {} файла {} пропущен.", name, file);
+                }
+            }
+            return columns;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return describe("CSV");
+    }
+
+    /**
+     * Границы значений текущей строки в буфере {@link LineReader}. Значения в кавычках раскрываются
+     * на месте, поэтому границы указывают на значение без кавычек. Экземпляр переиспользуется
+     * для всех строк и не потокобезопасен.
+     */
+    private static final class Fields {
+        private byte[] buffer;
+        private int[] starts = new int[8];
+        private int[] lengths = new int[8];
+        private int count;
+        private final char[] chars = new char[MAX_DATE_TIME_LENGTH];
+        private long[] crew = new long[INITIAL_CREW_CAPACITY];
+
+        /**
+         * Делит строку на значения.
+         *
+         * @param lines    чтение строк, установленное на строку.
+         * @param file     путь к файлу для сообщений об ошибках.
+         * @param expected ожидаемое количество значений или <code>-1</code>, если оно не проверяется.
+         * @return <code>false</code>, если строка пуста.
+         * @throws IOException если строка имеет неверный формат или другое количество значений.
+         */
+        boolean split(LineReader lines, Path file, int expected) throws IOException {
+            buffer = lines.buffer();
+            int position = lines.lineStart();
+            int lineEnd = position + lines.lineLength();
+            if (lines.isBlank()) {
+                return false;
+            }
+            count = 0;
+            while (true) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, count * 2);
+                    lengths = Arrays.copyOf(lengths, count * 2);
+                }
+                if (position < lineEnd && buffer[position] == '"') {
+                    position = unquote(lines, file, position, lineEnd);
+                } else {
+                    int valueStart = position;
+                    while (position < lineEnd && buffer[position] != ',') {
+                        position++;
+                    }
+                    starts[count] = valueStart;
+                    lengths[count] = position - valueStart;
+                }
+                count++;
+                if (position == lineEnd) {
+                    break;
+                }
+                if (buffer[position] != ',') {
+                    throw lineError(lines, file, "после закрывающей кавычки ожидается запятая", null);
+                }
+                position++;
+            }
+            if (expected >= 0 && count != expected) {
+                throw lineError(lines, file, "ожидается " + expected + " значений, найдено " + count, null);
+            }
+            return true;
+        }
+
+        /**
+         * Раскрывает значение в кавычках на месте: значение сдвигается на место открывающей кавычки,
+         * удвоенные кавычки заменяются одной.
+         *
+         * @return позиция после закрывающей кавычки.
+         */
+        private int unquote(LineReader lines, Path file, int position, int lineEnd) throws IOException {
+            int target = position;
+            starts[count] = target;
+            position++;
+            while (true) {
+                if (position == lineEnd) {
+                    throw lineError(lines, file, "незакрытая кавычка (переводы строк внутри значений "
+                            + "не поддерживаются)", null);
+                }
+                byte value = buffer[position++];
+                if (value == '"') {
+                    if (position == lineEnd || buffer[position] != '"') {
+                        lengths[count] = target - starts[count];
+                        return position;
+                    }
+                    position++;
+                }
+                buffer[target++] = value;
+            }
+        }
+
+        boolean isEmpty(int column) {
+            return lengths[column] == 0;
+        }
+
+        String text(int column) {
+            return new String(buffer, starts[column], lengths[column], StandardCharsets.UTF_8);
+        }
+
+        int parseInt(int column, LineReader lines, Path file) throws IOException {
+            long value = parseLong(starts[column], lengths[column], lines, file);
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                throw lineError(lines, file, "число " + text(column) + " вне допустимого диапазона", null);
+            }
+            return (int) value;
+        }
+
+        long parseLong(int column, LineReader lines, Path file) throws IOException {
+            return parseLong(starts[column], lengths[column], lines, file);
+        }
+
+        private long parseLong(int offset, int length, LineReader lines, Path file) throws IOException {
+            int position = offset;
+            int valueEnd = offset + length;
+            boolean negative = position < valueEnd && buffer[position] == '-';
+            if (negative) {
+                position++;
+            }
+            if (position == valueEnd) {
+                throw numberError(offset, length, lines, file);
+            }
+            long value = 0;
+            for (; position < valueEnd; position++) {
+                int digit = buffer[position] - '0';
+                if (digit < 0 || digit > 9 || value < (Long.MIN_VALUE + digit) / 10) {
+                    throw numberError(offset, length, lines, file);
+                }
+                value = value * 10 - digit;
+            }
+            if (!negative && value == Long.MIN_VALUE) {
+                throw numberError(offset, length, lines, file);
+            }
+            return negative ? value : -value;
+        }
+
+        private IOException numberError(int offset, int length, LineReader lines, Path file) {
+            return lineError(lines, file, "неверное число \""
+                    + new String(buffer, offset, length, StandardCharsets.UTF_8) + "\"", null);
+        }
+
+        LocalDateTime parseDateTime(int column, LineReader lines, Path file) throws IOException {
+            int offset = starts[column];
+            int length = lengths[column];
+            if (length <= chars.length) {
+                for (int i = 0; i < length; i++) {
+                    chars[i] = (char) (buffer[offset + i] & 0xFF);
+                }
+                LocalDateTime value = IsoLocalDateTimeParser.parse(chars, 0, length);
+                if (value != null) {
+                    return value;
+                }
+            }
+            try {
+                return LocalDateTime.parse(text(column));
+            } catch (DateTimeParseException e) {
+                throw lineError(lines, file, e.getMessage(), e);
+            }
+        }
+
+        long[] parseCrew(int column, LineReader lines, Path file) throws IOException {
+            int position = starts[column];
+            int valueEnd = position + lengths[column];
+            int size = 0;
+            while (position <= valueEnd) {
+                int idStart = position;
+                while (position < valueEnd && buffer[position] != ';') {
+                    position++;
+                }
+                if (size == crew.length) {
+                    crew = Arrays.copyOf(crew, size * 2);
+                }
+                crew[size++] = parseLong(idStart, position - idStart, lines, file);
+                position++;
+            }
+            return Arrays.copyOf(crew, size);
+        }
+    }
+
+    /**
+     * Таблица строк, созданных из байтов значений: одинаковые значения возвращаются одним объектом
+     * {@link String}, а новые строки создаются только для значений, которых еще нет в таблице.
+     * Используется для значений с небольшим количеством вариантов (типы судов, коды аэропортов).
+     */
+    private static final class StringTable {
+        private byte[][] keys = new byte[64][];
+        private String[] values = new String[64];
+        private int size;
+
+        String get(Fields fields, int column) {
+            byte[] buffer = fields.buffer;
+            int offset = fields.starts[column];
+            int length = fields.lengths[column];
+            int hash = 1;
+            for (int i = offset; i < offset + length; i++) {
+                hash = 31 * hash + buffer[i];
+            }
+            int mask = keys.length - 1;
+            for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+                byte[] key = keys[slot];
+                if (key == null) {
+                    String value = new String(buffer, offset, length, StandardCharsets.UTF_8);
+                    keys[slot] = Arrays.copyOfRange(buffer, offset, offset + length);
+                    values[slot] = value;
+                    if (++size * 2 > keys.length) {
+                        grow();
+                    }
+                    return value;
+                }
+                if (Arrays.equals(key, 0, key.length, buffer, offset, offset + length)) {
+                    return values[slot];
+                }
+            }
+        }
+
+        private void grow() {
+            byte[][] oldKeys = keys;
+            String[] oldValues = values;
+            keys = new byte[oldKeys.length * 2][];
+            values = new String[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    int slot = Arrays.hashCode(oldKeys[i]) & mask;
+                    while (keys[slot] != null) {
+                        slot = (slot + 1) & mask;
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+}
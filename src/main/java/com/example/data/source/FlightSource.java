@@ -0,0 +1,100 @@
+package com.example.data.source;
+
+import com.example.data.models.Flight;
+import com.example.data.models.InputData;
+import com.example.data.models.Specialist;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Источник входных данных: специалисты и полеты в одном из поддерживаемых форматов.
+ *
+ * <p>Источник не хранит прочитанных данных: каждый вызов {@link #read(Sink)} заново читает файл и передает
+ * записи получателю по мере чтения, в порядке их следования в файле. Источники, в которых записи разделены
+ * переводами строк, можно разделить на части по диапазонам байт ({@link #split(int)}) и читать части
+ * параллельно; объединение результатов частей в порядке следования совпадает с результатом чтения
+ * всего источника.</p>
+ *
+ * @see JsonDocumentSource
+ * @see NdjsonSource
+ * @see CsvSource
+ */
+public interface FlightSource {
+
+    /**
+     * Читает записи источника и передает их получателю.
+     *
+     * @param sink получатель записей.
+     * @throws IOException если произошла ошибка при чтении или записи имеют неверный формат.
+     */
+    void read(Sink sink) throws IOException;
+
+    /**
+     * Возвращает размер данных источника в байтах: сумму размеров читаемых файлов или их диапазонов.
+     *
+     * @return размер данных источника в байтах или <code>-1</code>, если он неизвестен.
+     * @throws IOException если не удалось определить размер файла.
+     */
+    default long size() throws IOException {
+        return -1;
+    }
+
+    /**
+     * Делит источник на части, которые можно читать независимо. Источники, которые не поддерживают
+     * разделение, возвращают себя.
+     *
+     * @param parts желаемое количество частей.
+     * @return части источника в порядке следования, не больше <code>parts</code>.
+     * @throws IOException если не удалось определить размер источника.
+     */
+    default List<FlightSource> split(int parts) throws IOException {
+        return List.of(this);
+    }
+
+    /**
+     * Читает все записи источника в память.
+     *
+     * @return объект {@link InputData} со специалистами и полетами в порядке следования.
+     * @throws IOException если произошла ошибка при чтении или записи имеют неверный формат.
+     */
+    default InputData readInputData() throws IOException {
+        InputData inputData = new InputData(new ArrayList<>(), new ArrayList<>());
+        read(new Sink() {
+            @Override
+            public void specialist(Specialist specialist) {
+                inputData.getSpecialists().add(specialist);
+            }
+
+            @Override
+            public void flight(Flight flight) {
+                inputData.getFlights().add(flight);
+            }
+        });
+        return inputData;
+    }
+
+    /**
+     * Получатель записей источника. Исключение получателя прерывает чтение и передается вызывающему
+     * {@link #read(Sink)}.
+     */
+    interface Sink {
+
+        /**
+         * Принимает специалиста.
+         *
+         * @param specialist специалист.
+         * @throws IOException если получатель не смог сохранить запись.
+         */
+        void specialist(Specialist specialist) throws IOException;
+
+        /**
+         * Принимает полет.
+         *
+         * @param flight полет.
+         * @throws IOException если получатель не смог сохранить запись.
+         */
+        void flight(Flight flight) throws IOException;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.data.source;
+
+import com.example.data.models.Flight;
+import com.example.data.models.Specialist;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.UnaryOperator;
+
+/**
+ * Источник входных данных в формате входного файла приложения: один JSON-объект с массивами
+ * <code>specialists</code> и <code>flights</code>.
+ *
+ * <p>Документ читается потоково, записи передаются получателю по мере разбора массивов. Неизвестные поля
+ * верхнего уровня пропускаются с предупреждением, как и при внешней агрегации. Документ нельзя разделить
+ * на независимые части, поэтому {@link #split(int)} возвращает сам источник.</p>
+ */
+@Slf4j
+public class JsonDocumentSource implements FlightSource {
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader specialistReader;
+    private final ObjectReader flightReader;
+    private final UnaryOperator<InputStream> streamWrapper;
+
+    /**
+     * Создает источник.
+     *
+     * @param file         путь к входному файлу.
+     * @param objectMapper объект для чтения JSON.
+     */
+    public JsonDocumentSource(Path file, ObjectMapper objectMapper) {
+        this(file, objectMapper, UnaryOperator.identity());
+    }
+
+    /**
+     * Создает источник, читающий файл через обертку потока, например для учета прочитанных байт.
+     *
+     * @param file          путь к входному файлу.
+     * @param objectMapper  объект для чтения JSON.
+     * @param streamWrapper обертка потока входного файла.
+     */
+    public JsonDocumentSource(Path file, ObjectMapper objectMapper, UnaryOperator<InputStream> streamWrapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+        this.specialistReader = objectMapper.readerFor(Specialist.class);
+        this.flightReader = objectMapper.readerFor(Flight.class);
+        this.streamWrapper = streamWrapper;
+    }
+
+    @Override
+    public void read(Sink sink) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(streamWrapper.apply(Files.newInputStream(file)))) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Входной файл должен содержать JSON-объект: " + file);
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                if ("specialists".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        sink.specialist(specialistReader.readValue(parser));
+                    }
+                } else if ("flights".equals(field) && token == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() != JsonToken.END_ARRAY) {
+                        sink.flight(flightReader.readValue(parser));
+                    }
+                } else {
+                    log.warn("Поле {} входного файла пропущено.", field);
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    @Override
+    public long size() throws IOException {
+        return Files.size(file);
+    }
+
+    @Override
+    public String toString() {
+        return "JSON " + file;
+    }
+}
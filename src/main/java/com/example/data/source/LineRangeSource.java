@@ -0,0 +1,111 @@
+package com.example.data.source;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * Основа источников, в которых каждая запись занимает одну строку файла.
+ *
+ * <p>Источник читает строки диапазона байт <code>[start, end)</code> файла через {@link LineReader}
+ * и делится на части по диапазонам байт: части покрывают каждую строку диапазона ровно один раз.
+ * Поток чтения файла оборачивается заданной оберткой, например для учета прочитанных байт.</p>
+ */
+abstract class LineRangeSource implements FlightSource {
+    static final long MIN_PART_SIZE = 4L * 1024 * 1024;
+
+    final Path file;
+    final UnaryOperator<InputStream> streamWrapper;
+    final long start;
+    final long end;
+
+    /**
+     * Создает источник для диапазона байт файла.
+     *
+     * @param file          путь к файлу, строки которого делятся на части.
+     * @param streamWrapper обертка потоков чтения файлов источника.
+     * @param start         начало диапазона в байтах.
+     * @param end           конец диапазона в байтах (не включительно), <code>Long.MAX_VALUE</code> — до конца файла.
+     */
+    LineRangeSource(Path file, UnaryOperator<InputStream> streamWrapper, long start, long end) {
+        this.file = file;
+        this.streamWrapper = streamWrapper;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Создает источник того же вида для части диапазона.
+     *
+     * @param partStart начало части в байтах.
+     * @param partEnd   конец части в байтах (не включительно).
+     * @return источник части.
+     */
+    abstract FlightSource part(long partStart, long partEnd);
+
+    @Override
+    public List<FlightSource> split(int parts) throws IOException {
+        return split(parts, MIN_PART_SIZE);
+    }
+
+    @Override
+    public long size() throws IOException {
+        return rangeSize();
+    }
+
+    /**
+     * Возвращает размер диапазона байт файла, строки которого делятся на части.
+     *
+     * @return размер диапазона в байтах.
+     * @throws IOException если не удалось определить размер файла.
+     */
+    final long rangeSize() throws IOException {
+        return Math.min(end, Files.size(file)) - start;
+    }
+
+    /**
+     * Делит источник на части не меньше заданного размера.
+     *
+     * @param parts       желаемое количество частей.
+     * @param minPartSize минимальный размер части в байтах.
+     * @return части источника в порядке следования.
+     * @throws IOException если не удалось определить размер файла.
+     */
+    List<FlightSource> split(int parts, long minPartSize) throws IOException {
+        long[] bounds = LineReader.splitRanges(rangeSize(), parts, minPartSize);
+        List<FlightSource> sources = new ArrayList<>(bounds.length - 1);
+        for (int i = 0; i < bounds.length - 1; i++) {
+            long partEnd = i == bounds.length - 2 ? end : start + bounds[i + 1];
+            sources.add(part(start + bounds[i], partEnd));
+        }
+        return sources;
+    }
+
+    /**
+     * Создает исключение для ошибки в текущей строке с указанием ее смещения.
+     *
+     * @param lines   чтение строк, установленное на строку с ошибкой.
+     * @param file    путь к файлу строки.
+     * @param message описание ошибки.
+     * @param cause   исходное исключение или <code>null</code>.
+     * @return исключение для ошибки.
+     */
+    static IOException lineError(LineReader lines, Path file, String message, Exception cause) {
+        return new IOException("Ошибка в строке со смещением " + lines.lineOffset() + " файла " + file + ": "
+                + message, cause);
+    }
+
+    /**
+     * Возвращает описание источника для журнала: формат, файл и диапазон, если источник является частью.
+     *
+     * @param format название формата.
+     * @return описание источника.
+     */
+    String describe(String format) {
+        return format + " " + file + (start == 0 && end == Long.MAX_VALUE ? "" : " [" + start + ", " + end + ")");
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.data.source;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.UnaryOperator;
+
+/**
+ * Чтение строк файла в заданном диапазоне байт без создания объектов на каждую строку.
+ *
+ * <p>Строка принадлежит диапазону <code>[start, end)</code>, если ее первый байт находится в этом
+ * диапазоне. Поэтому чтение, начинающееся не с начала файла, пропускает неполную строку, а последняя
+ * строка диапазона дочитывается до конца даже за его границей. Диапазоны, полученные
+ * {@link #splitRanges(long, int, long)}, покрывают каждую строку файла ровно один раз.</p>
+ *
+ * <p>После успешного вызова {@link #next()} строка доступна в буфере {@link #buffer()} с позиции
+ * {@link #lineStart()} длиной {@link #lineLength()} байт, без символов <code>\n</code> и <code>\r</code>
+ * в конце. Содержимое буфера действительно до следующего вызова {@link #next()}.</p>
+ *
+ * <p>Файл читается через поток, который можно обернуть, например для учета прочитанных байт. Внутри диапазона
+ * данные читаются не дальше его конца, а последняя строка дочитывается блоками по {@link #TAIL_READ_SIZE}
+ * байт, поэтому части файла почти не читают данные соседних частей.</p>
+ */
+final class LineReader implements Closeable {
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final int TAIL_READ_SIZE = 4 * 1024;
+
+    private final InputStream in;
+    private final long end;
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+    private long bufferOffset;
+    private int position;
+    private int limit;
+    private boolean eof;
+
+    private int lineStart;
+    private int lineLength;
+    private long lineOffset;
+
+    /**
+     * Открывает файл для чтения строк диапазона.
+     *
+     * @param file  путь к файлу.
+     * @param start начало диапазона в байтах.
+     * @param end   конец диапазона в байтах (не включительно).
+     * @throws IOException если файл не удалось открыть.
+     */
+    LineReader(Path file, long start, long end) throws IOException {
+        this(file, start, end, UnaryOperator.identity());
+    }
+
+    /**
+     * Открывает файл для чтения строк диапазона через обертку потока.
+     *
+     * @param file          путь к файлу.
+     * @param start         начало диапазона в байтах.
+     * @param end           конец диапазона в байтах (не включительно).
+     * @param streamWrapper обертка потока, читающего файл с начала диапазона.
+     * @throws IOException если файл не удалось открыть.
+     */
+    LineReader(Path file, long start, long end, UnaryOperator<InputStream> streamWrapper) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        this.end = end;
+        if (start > 0) {
+            bufferOffset = start - 1;
+            channel.position(bufferOffset);
+        }
+        this.in = streamWrapper.apply(Channels.newInputStream(channel));
+        if (start > 0) {
+            int newline = findNewline(0);
+            position = newline >= 0 ? newline + 1 : limit;
+        }
+    }
+
+    /**
+     * Делит файл на диапазоны приблизительно одинакового размера.
+     *
+     * @param size        размер файла в байтах.
+     * @param parts       желаемое количество диапазонов.
+     * @param minPartSize минимальный размер диапазона в байтах.
+     * @return границы диапазонов: диапазон <code>i</code> — от <code>bounds[i]</code> до <code>bounds[i + 1]</code>.
+     */
+    static long[] splitRanges(long size, int parts, long minPartSize) {
+        int count = (int) Math.max(1, Math.min(parts, size / Math.max(1, minPartSize)));
+        long[] bounds = new long[count + 1];
+        for (int i = 0; i <= count; i++) {
+            bounds[i] = size * i / count;
+        }
+        return bounds;
+    }
+
+    /**
+     * Читает следующую строку диапазона.
+     *
+     * @return <code>true</code>, если строка прочитана, <code>false</code> при достижении конца диапазона.
+     * @throws IOException если произошла ошибка при чтении.
+     */
+    boolean next() throws IOException {
+        if (bufferOffset + position >= end || (position == limit && !fill())) {
+            return false;
+        }
+        long offset = bufferOffset + position;
+        int newline = findNewline(position);
+        int lineEnd = newline >= 0 ? newline : limit;
+        lineStart = position;
+        lineLength = lineEnd - lineStart;
+        if (lineLength > 0 && buffer[lineEnd - 1] == '\r') {
+            lineLength--;
+        }
+        lineOffset = offset;
+        position = newline >= 0 ? newline + 1 : limit;
+        return true;
+    }
+
+    byte[] buffer() {
+        return buffer;
+    }
+
+    int lineStart() {
+        return lineStart;
+    }
+
+    int lineLength() {
+        return lineLength;
+    }
+
+    /**
+     * Проверяет, состоит ли текущая строка только из пробелов и табуляций.
+     *
+     * @return <code>true</code>, если строка пуста или содержит только пробельные символы.
+     */
+    boolean isBlank() {
+        for (int i = lineStart; i < lineStart + lineLength; i++) {
+            if (buffer[i] != ' ' && buffer[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Возвращает смещение текущей строки от начала файла.
+     *
+     * @return смещение строки в байтах.
+     */
+    long lineOffset() {
+        return lineOffset;
+    }
+
+    /**
+     * Ищет перевод строки, начиная с позиции буфера, при необходимости дочитывая файл. При дочитывании
+     * непрочитанные данные сдвигаются в начало буфера, поэтому позиции до вызова становятся недействительными,
+     * кроме {@link #position}.
+     *
+     * @param from позиция начала поиска.
+     * @return позиция перевода строки или <code>-1</code>, если файл закончился без перевода строки.
+     */
+    private int findNewline(int from) throws IOException {
+        int scanned = from - position;
+        while (true) {
+            for (int i = position + scanned; i < limit; i++) {
+                if (buffer[i] == '\n') {
+                    return i;
+                }
+            }
+            scanned = limit - position;
+            if (!fill()) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * Дочитывает данные в буфер.
+     *
+     * @return <code>true</code>, если прочитан хотя бы один байт.
+     */
+    private boolean fill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            bufferOffset += position;
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        long untilEnd = end - (bufferOffset + limit);
+        int length = (int) Math.min(buffer.length - limit, untilEnd > 0 ? untilEnd : TAIL_READ_SIZE);
+        int read = in.read(buffer, limit, length);
+        if (read < 0) {
+            eof = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.data.source;
+
+import com.example.data.models.Flight;
+import com.example.data.models.Specialist;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.function.UnaryOperator;
+
+/**
+ * Источник входных данных в формате NDJSON: каждая непустая строка файла содержит один JSON-объект —
+ * специалиста или полет в том же представлении, что и во входном JSON-файле.
+ *
+ * <p>Вид записи определяется по первому полю объекта: объекты специалистов начинаются с полей
+ * <code>id</code>, <code>name</code> или <code>monthlyData</code>, которых нет у полетов. Записи разных
+ * видов могут чередоваться в любом порядке.</p>
+ *
+ * <p>Строки независимы, поэтому файл делится на части по диапазонам байт (см. {@link LineRangeSource})
+ * и части можно разбирать параллельно.</p>
+ */
+public class NdjsonSource extends LineRangeSource {
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Создает источник для всего файла.
+     *
+     * @param file         путь к файлу NDJSON.
+     * @param objectMapper объект для чтения JSON.
+     */
+    public NdjsonSource(Path file, ObjectMapper objectMapper) {
+        this(file, objectMapper, UnaryOperator.identity());
+    }
+
+    /**
+     * Создает источник для всего файла, читающий файл через обертку потока, например для учета
+     * прочитанных байт.
+     *
+     * @param file          путь к файлу NDJSON.
+     * @param objectMapper  объект для чтения JSON.
+     * @param streamWrapper обертка потоков чтения файла.
+     */
+    public NdjsonSource(Path file, ObjectMapper objectMapper, UnaryOperator<InputStream> streamWrapper) {
+        this(file, objectMapper, streamWrapper, 0, Long.MAX_VALUE);
+    }
+
+    private NdjsonSource(Path file, ObjectMapper objectMapper, UnaryOperator<InputStream> streamWrapper,
+                         long start, long end) {
+        super(file, streamWrapper, start, end);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void read(Sink sink) throws IOException {
+        JsonFactory factory = objectMapper.getFactory();
+        ObjectReader specialistReader = objectMapper.readerFor(Specialist.class);
+        ObjectReader flightReader = objectMapper.readerFor(Flight.class);
+        try (LineReader lines = new LineReader(file, start, end, streamWrapper)) {
+            while (lines.next()) {
+                if (lines.isBlank()) {
+                    continue;
+                }
+                try (JsonParser parser = factory.createParser(lines.buffer(), lines.lineStart(), lines.lineLength())) {
+                    if (parser.nextToken() != JsonToken.START_OBJECT || parser.nextToken() != JsonToken.FIELD_NAME) {
+                        throw lineError(lines, file, "строка должна содержать непустой JSON-объект", null);
+                    }
+                    if (isSpecialistField(parser.currentName())) {
+                        sink.specialist(specialistReader.readValue(parser));
+                    } else {
+                        sink.flight(flightReader.readValue(parser));
+                    }
+                } catch (JsonProcessingException e) {
+                    throw lineError(lines, file, e.getOriginalMessage(), e);
+                }
+            }
+        }
+    }
+
+    @Override
+    FlightSource part(long partStart, long partEnd) {
+        return new NdjsonSource(file, objectMapper, streamWrapper, partStart, partEnd);
+    }
+
+    private static boolean isSpecialistField(String field) {
+        return "id".equals(field) || "name".equals(field) || "monthlyData".equals(field);
+    }
+
+    @Override
+    public String toString() {
+        return describe("NDJSON");
+    }
+}
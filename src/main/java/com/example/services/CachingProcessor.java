@@ -0,0 +1,190 @@
+package com.example.services;
+
+import com.example.data.FileService;
+import com.example.data.InputFingerprint;
+import com.example.data.OutputCache;
+import com.example.data.models.InputData;
+import com.example.data.models.LimitReport;
+import com.example.data.models.OutputData;
+import com.example.data.models.PartialOutputData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+
+/**
+ * Обработка входных данных с использованием кеша результатов.
+ *
+ * <p>Ключ кеша формируется из контрольной суммы параметров обработки (см.
+ * {@link com.example.config.AppConfig#getProcessingSettings()}) и отпечатка входного файла
+ * (см. {@link InputFingerprint}). Для неизмененного входного файла и тех же параметров результат берется
+ * из кеша без чтения и обработки данных.</p>
+ *
+ * <p>Для входных данных, разбитых на шарды, кешируются промежуточные результаты каждого шарда
+ * ({@link PartialOutputData}): заново обрабатываются только измененные шарды, после чего промежуточные
+ * результаты всех шардов объединяются.</p>
+ *
+ * <p>Отчет о близости к ограничениям не сериализуется вместе с {@link OutputData}, поэтому кешируется
+ * рядом с ним в записи {@link CachedOutput}.</p>
+ */
+@Slf4j
+public class CachingProcessor {
+    /**
+     * Префиксы ключей содержат версию формата записи и меняются при изменении расчета.
+     */
+    static final String OUTPUT_KEY_PREFIX = "output-v5-";
+    static final String PARTIAL_KEY_PREFIX = "partial-v1-";
+
+    private final FileService fileService;
+    private final JsonFileProcessor jsonFileProcessor;
+    private final OutputCache outputCache;
+    private final String settingsKey;
+
+    /**
+     * Создает обработчик с кешем.
+     *
+     * @param fileService       сервис для чтения входных файлов.
+     * @param jsonFileProcessor обработчик входных данных.
+     * @param outputCache       кеш результатов или <code>null</code>, если кеширование выключено.
+     * @param settings          описание параметров обработки, от которых зависит результат.
+     */
+    public CachingProcessor(FileService fileService, JsonFileProcessor jsonFileProcessor, OutputCache outputCache,
+                            String settings) {
+        this.fileService = fileService;
+        this.jsonFileProcessor = jsonFileProcessor;
+        this.outputCache = outputCache;
+        CRC32C checksum = new CRC32C();
+        checksum.update(settings.getBytes(StandardCharsets.UTF_8));
+        this.settingsKey = Long.toHexString(checksum.getValue());
+    }
+
+    /**
+     * Возвращает результат обработки входного файла из кеша или обрабатывает файл и сохраняет результат в кеш.
+     *
+     * @param inputFile путь к входному файлу.
+     * @param processor способ обработки файла при отсутствии результата в кеше.
+     * @return объект {@link OutputData} с результатами обработки.
+     * @throws IOException если произошла ошибка при чтении файла или работе с кешем.
+     */
+    public OutputData process(Path inputFile, InputProcessor processor) throws IOException {
+        return process(inputFile, List.of(), processor);
+    }
+
+    /**
+     * Возвращает результат обработки входного файла из кеша или обрабатывает файл и сохраняет результат в кеш.
+     * Ключ кеша учитывает также отпечатки связанных файлов, которые читаются вместе с входным
+     * (например, файла специалистов для входных данных в формате CSV).
+     *
+     * @param inputFile    путь к входному файлу.
+     * @param relatedFiles пути к связанным файлам.
+     * @param processor    способ обработки файла при отсутствии результата в кеше.
+     * @return объект {@link OutputData} с результатами обработки.
+     * @throws IOException если произошла ошибка при чтении файлов или работе с кешем.
+     */
+    public OutputData process(Path inputFile, List<Path> relatedFiles, InputProcessor processor) throws IOException {
+        if (outputCache == null) {
+            return processor.process(inputFile);
+        }
+        StringBuilder key = new StringBuilder(OUTPUT_KEY_PREFIX).append(settingsKey).append('-')
+                .append(InputFingerprint.of(inputFile));
+        for (Path relatedFile : relatedFiles) {
+            key.append('-').append(InputFingerprint.of(relatedFile));
+        }
+        Optional<CachedOutput> cached = outputCache.get(key.toString(), CachedOutput.class);
+        if (cached.isPresent()) {
+            log.info("Входной файл {} не изменился, результат взят из кеша.", inputFile);
+            OutputData outputData = cached.get().outputData();
+            outputData.setLimitReport(cached.get().limitReport());
+            return outputData;
+        }
+        OutputData outputData = processor.process(inputFile);
+        outputCache.put(key.toString(), new CachedOutput(outputData, outputData.getLimitReport()));
+        return outputData;
+    }
+
+    /**
+     * Обрабатывает входные данные, разбитые на шарды. Промежуточные результаты неизмененных шардов
+     * берутся из кеша.
+     *
+     * @param shardFiles пути к файлам шардов в порядке следования.
+     * @return объект {@link OutputData} с объединенными результатами всех шардов.
+     * @throws IOException если произошла ошибка при чтении файлов или работе с кешем.
+     */
+    public OutputData processShards(List<Path> shardFiles) throws IOException {
+        return processShards(shardFiles, ProcessingMonitor.none());
+    }
+
+    /**
+     * Обрабатывает входные данные, разбитые на шарды. Промежуточные результаты неизмененных шардов
+     * берутся из кеша.
+     *
+     * <p>Этап чтения начинается с суммарным размером шардов, которых нет в кеше; прочитанные байты
+     * учитываются монитором. Отмена проверяется при чтении и перед обработкой каждого шарда.</p>
+     *
+     * @param shardFiles пути к файлам шардов в порядке следования.
+     * @param monitor    монитор запуска.
+     * @return объект {@link OutputData} с объединенными результатами всех шардов.
+     * @throws IOException                  если произошла ошибка при чтении файлов или работе с кешем.
+     * @throws ProcessingCancelledException если обработка отменена через монитор.
+     */
+    public OutputData processShards(List<Path> shardFiles, ProcessingMonitor monitor) throws IOException {
+        PartialOutputData[] partials = new PartialOutputData[shardFiles.size()];
+        String[] keys = new String[shardFiles.size()];
+        long bytesToRead = 0;
+        int cachedShards = 0;
+        for (int i = 0; i < shardFiles.size(); i++) {
+            Path shardFile = shardFiles.get(i);
+            if (outputCache != null) {
+                keys[i] = PARTIAL_KEY_PREFIX + settingsKey + "-" + InputFingerprint.of(shardFile);
+                Optional<PartialOutputData> cached = outputCache.get(keys[i], PartialOutputData.class);
+                if (cached.isPresent()) {
+                    log.debug("Шард {} не изменился, промежуточные результаты взяты из кеша.", shardFile);
+                    partials[i] = cached.get();
+                    cachedShards++;
+                    continue;
+                }
+            }
+            bytesToRead += Files.size(shardFile);
+        }
+
+        monitor.startStage(ProcessingProgress.Stage.PARSING, bytesToRead);
+        for (int i = 0; i < shardFiles.size(); i++) {
+            if (partials[i] != null) {
+                continue;
+            }
+            monitor.checkCancelled();
+            Path shardFile = shardFiles.get(i);
+            log.debug("Обработка шарда {}.", shardFile);
+            InputData inputData = fileService.loadInputData(monitor.track(Files.newInputStream(shardFile)));
+            partials[i] = jsonFileProcessor.processPartialInputData(inputData);
+            if (keys[i] != null) {
+                outputCache.put(keys[i], partials[i]);
+            }
+        }
+        log.info("Шардов: {}, взято из кеша: {}.", shardFiles.size(), cachedShards);
+        monitor.checkCancelled();
+        return jsonFileProcessor.mergePartialOutputData(List.of(partials));
+    }
+
+    /**
+     * Запись кеша с результатом обработки входного файла.
+     *
+     * @param outputData  выходные данные.
+     * @param limitReport отчет о близости к ограничениям.
+     */
+    record CachedOutput(OutputData outputData, LimitReport limitReport) {
+    }
+
+    /**
+     * Способ обработки входного файла.
+     */
+    @FunctionalInterface
+    public interface InputProcessor {
+        OutputData process(Path inputFile) throws IOException;
+    }
+}
@@ -0,0 +1,443 @@
+package com.example.services;
+
+import com.example.data.FlightRunReader;
+import com.example.data.FlightRunWriter;
+import com.example.data.models.Flight;
+import com.example.data.models.OutputData;
+import com.example.data.models.Specialist;
+import com.example.data.source.FlightSource;
+import com.example.utils.CalendarTable;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Обработка входных данных, не помещающихся в память, с использованием временных файлов.
+ *
+ * <p>Источник входных данных любого формата (см. {@link FlightSource}) читается потоково. Каждый полет
+ * записывается во временный двоичный файл раздела (см. {@link FlightRunWriter}), номер раздела определяется
+ * хешем идентификатора специалиста, поэтому все полеты одного специалиста попадают в один раздел. Сводки
+ * по воздушным судам и аэропортам накапливаются в том же проходе. Затем разделы агрегируются независимо
+ * друг от друга, последовательно или параллельно.</p>
+ *
+ * <p>Количество разделов выбирается так, чтобы одновременно обрабатываемые разделы укладывались
+ * в заданный бюджет памяти, но не больше половины максимального размера кучи. Одновременно открыто не больше
+ * {@link #MAX_FAN_OUT} временных файлов: если разделов больше, полеты сначала распределяются по файлам
+ * диапазонов разделов, которые затем рекурсивно делятся до отдельных разделов. Расчет по каждому специалисту
+ * выполняется {@link SpecialistAggregator}, поэтому результат совпадает с результатом
+ * {@link JsonFileProcessorImpl}.</p>
+ *
+ * <p>Ход обработки передается в {@link ProcessingMonitor}. Отмена проверяется при чтении источника,
+ * перед каждым разделом и перед расчетом каждого специалиста; временные файлы при отмене удаляются.</p>
+ */
+@Slf4j
+public class ExternalAggregationProcessor {
+    /**
+     * Оценка объема памяти, занимаемого полетами при агрегации, на один байт входного файла.
+     */
+    private static final long ESTIMATED_MEMORY_PER_INPUT_BYTE = 3;
+    private static final int MAX_PARTITIONS = 4096;
+    /**
+     * Наибольшее количество одновременно открытых временных файлов при распределении полетов.
+     */
+    static final int MAX_FAN_OUT = 256;
+    private static final int MIN_BUFFER_SIZE = 4 * 1024;
+    private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+    private final long memoryBudgetBytes;
+    private final int threads;
+    private final Path tempDirectory;
+    private final int limitReportTopCount;
+    private final int maxFanOut;
+
+    /**
+     * Создает обработчик с внешней агрегацией.
+     *
+     * @param memoryBudgetBytes бюджет памяти на агрегацию разделов в байтах.
+     * @param threads           количество потоков агрегации разделов.
+     * @param tempDirectory     каталог для временных файлов.
+     * @throws IllegalArgumentException если бюджет памяти или количество потоков меньше единицы.
+     */
+    public ExternalAggregationProcessor(long memoryBudgetBytes, int threads, Path tempDirectory) {
+        this(memoryBudgetBytes, threads, tempDirectory, LimitProximityCollector.DEFAULT_TOP_COUNT);
+    }
+
+    /**
+     * Создает обработчик с внешней агрегацией.
+     *
+     * @param memoryBudgetBytes   бюджет памяти на агрегацию разделов в байтах.
+     * @param threads             количество потоков агрегации разделов.
+     * @param tempDirectory       каталог для временных файлов.
+     * @param limitReportTopCount количество специалистов, ближайших к ограничению за месяц, в отчете
+     *                            для каждого месяца.
+     * @throws IllegalArgumentException если бюджет памяти, количество потоков или специалистов в отчете
+     *                                  меньше единицы.
+     */
+    public ExternalAggregationProcessor(long memoryBudgetBytes, int threads, Path tempDirectory,
+                                        int limitReportTopCount) {
+        this(memoryBudgetBytes, threads, tempDirectory, limitReportTopCount, MAX_FAN_OUT);
+    }
+
+    ExternalAggregationProcessor(long memoryBudgetBytes, int threads, Path tempDirectory, int limitReportTopCount,
+                                 int maxFanOut) {
+        if (memoryBudgetBytes < 1) {
+            throw new IllegalArgumentException("Бюджет памяти должен быть больше нуля.");
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть больше нуля.");
+        }
+        if (limitReportTopCount < 1) {
+            throw new IllegalArgumentException("Количество специалистов в отчете должно быть больше нуля.");
+        }
+        if (maxFanOut < 2) {
+            throw new IllegalArgumentException("Количество одновременно открытых файлов должно быть больше единицы.");
+        }
+        this.memoryBudgetBytes = memoryBudgetBytes;
+        this.threads = threads;
+        this.tempDirectory = tempDirectory;
+        this.limitReportTopCount = limitReportTopCount;
+        this.maxFanOut = maxFanOut;
+    }
+
+    /**
+     * Обрабатывает источник входных данных и возвращает выходные данные.
+     *
+     * <p>Временные файлы удаляются после обработки, в том числе при ошибке.</p>
+     *
+     * @param source источник входных данных.
+     * @return объект {@link OutputData}, содержащий список специалистов с обновленными данными.
+     * @throws IOException если произошла ошибка при чтении источника или работе с временными файлами.
+     */
+    public OutputData process(FlightSource source) throws IOException {
+        return process(source, ProcessingMonitor.none());
+    }
+
+    /**
+     * Обрабатывает источник входных данных с отслеживанием хода обработки и возможностью отмены.
+     *
+     * <p>Временные файлы удаляются после обработки, в том числе при ошибке или отмене.</p>
+     *
+     * @param source  источник входных данных.
+     * @param monitor монитор запуска.
+     * @return объект {@link OutputData}, содержащий список специалистов с обновленными данными.
+     * @throws IOException                  если произошла ошибка при чтении источника или работе
+     *                                      с временными файлами.
+     * @throws ProcessingCancelledException если обработка отменена через монитор.
+     */
+    public OutputData process(FlightSource source, ProcessingMonitor monitor) throws IOException {
+        log.info("Начало внешней агрегации входных данных из источника: {}", source);
+        long inputSize = source.size();
+        int partitions = partitionCount(inputSize);
+        Files.createDirectories(tempDirectory);
+        Path runDirectory = Files.createTempDirectory(tempDirectory, "flight-runs-");
+        log.debug("Разделов: {}, каталог временных файлов: {}", partitions, runDirectory);
+
+        try {
+            Map<Long, Specialist> specialists = new LinkedHashMap<>();
+            Set<Long> crewIds = new HashSet<>();
+            UtilizationAccumulator utilization = new UtilizationAccumulator();
+            CalendarTable.Builder calendar = CalendarTable.builder();
+            monitor.startStage(ProcessingProgress.Stage.PARSING, inputSize);
+            spill(source, runDirectory, partitions, specialists, crewIds, utilization, calendar, monitor);
+            long specialistsWithFlights = specialists.keySet().stream().filter(crewIds::contains).count();
+            log.debug("Полеты распределены по разделам. Специалистов: {}, из них с полетами: {}",
+                    specialists.size(), specialistsWithFlights);
+
+            monitor.startStage(ProcessingProgress.Stage.AGGREGATION, specialistsWithFlights);
+            SpecialistAggregator specialistAggregator = new SpecialistAggregator(calendar.build());
+            LimitProximityCollector limitReports = new LimitProximityCollector(limitReportTopCount,
+                    LimitProximityCollector.DEFAULT_WEEKLY_MARGIN_HOURS);
+            aggregatePartitions(runDirectory, partitions, Collections.unmodifiableMap(specialists),
+                    specialistAggregator, limitReports, monitor);
+            log.debug("Агрегация разделов завершена.");
+
+            OutputData outputData = new OutputData();
+            specialists.values().forEach(SpecialistAggregator::sortMonthlyData);
+            outputData.getSpecialists().addAll(specialists.values());
+            utilization.writeTo(outputData);
+            outputData.setLimitReport(limitReports.toReport());
+            log.info("Внешняя агрегация входных данных завершена.");
+            return outputData;
+        } finally {
+            deleteRunDirectory(runDirectory);
+        }
+    }
+
+    /**
+     * Вычисляет количество разделов так, чтобы каждый из одновременно обрабатываемых разделов
+     * укладывался в свою долю бюджета памяти. Бюджет ограничивается половиной максимального
+     * размера кучи ({@link Runtime#maxMemory()}), поэтому завышенный бюджет в конфигурации
+     * не приводит к нехватке памяти.
+     *
+     * @param inputSize размер входных данных в байтах или <code>-1</code>, если он неизвестен
+     *                  (тогда используется один раздел).
+     * @return количество разделов.
+     */
+    int partitionCount(long inputSize) {
+        long budget = Math.min(memoryBudgetBytes, Runtime.getRuntime().maxMemory() / 2);
+        long partitionBudget = Math.max(1, budget / threads);
+        long estimatedMemory = Math.max(0, inputSize) * ESTIMATED_MEMORY_PER_INPUT_BYTE;
+        long partitions = (estimatedMemory + partitionBudget - 1) / partitionBudget;
+        return (int) Math.max(1, Math.min(MAX_PARTITIONS, partitions));
+    }
+
+    /**
+     * Потоково читает источник: копирует специалистов, накапливает сводки и диапазон дат
+     * для таблицы календаря и распределяет полеты по временным файлам разделов. Если разделов больше,
+     * чем {@link #maxFanOut}, полеты распределяются по файлам диапазонов разделов, которые затем
+     * делятся {@link #redistribute}.
+     *
+     * @param source       источник входных данных.
+     * @param runDirectory каталог временных файлов.
+     * @param partitions   количество разделов.
+     * @param specialists  карта для копий специалистов; специалисты без идентификатора пропускаются.
+     * @param crewIds      множество для идентификаторов членов экипажа всех полетов.
+     * @param utilization  накопитель сводок по воздушным судам и аэропортам.
+     * @param calendar     построитель таблицы календаря.
+     * @param monitor      монитор запуска.
+     * @throws IOException если произошла ошибка при чтении или записи.
+     */
+    private void spill(FlightSource source, Path runDirectory, int partitions, Map<Long, Specialist> specialists,
+                       Set<Long> crewIds, UtilizationAccumulator utilization, CalendarTable.Builder calendar,
+                       ProcessingMonitor monitor) throws IOException {
+        int buckets = Math.min(partitions, maxFanOut);
+        int bufferSize = bufferSize(buckets);
+        FlightRunWriter[] writers = new FlightRunWriter[buckets];
+        try {
+            openBuckets(runDirectory, 0, partitions, writers, bufferSize);
+            source.read(new FlightSource.Sink() {
+                @Override
+                public void specialist(Specialist specialist) {
+                    if (specialist.getId() == null) {
+                        log.warn("Специалист без идентификатора пропущен: {}", specialist);
+                        return;
+                    }
+                    specialists.put(specialist.getId(), SpecialistAggregator.copyOf(specialist));
+                }
+
+                @Override
+                public void flight(Flight flight) throws IOException {
+                    utilization.accept(flight);
+                    calendar.include(flight.getTakeoffTime()).include(flight.getLandingTime());
+                    for (long specialistId : flight.getCrew()) {
+                        crewIds.add(specialistId);
+                        int partition = partitionOf(specialistId, partitions);
+                        writers[bucketOf(partition, 0, partitions, buckets)].write(specialistId, flight);
+                    }
+                    monitor.flightAggregated();
+                }
+            });
+        } finally {
+            closeAll(writers);
+        }
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            redistribute(runDirectory, rangeStart(0, partitions, buckets, bucket),
+                    rangeStart(0, partitions, buckets, bucket + 1), partitions, monitor);
+        }
+    }
+
+    /**
+     * Делит временный файл диапазона разделов <code>[from, to)</code> на файлы не более чем
+     * {@link #maxFanOut} поддиапазонов и рекурсивно продолжает, пока каждый файл не будет содержать
+     * один раздел. Файл диапазона удаляется после деления.
+     *
+     * @param runDirectory каталог временных файлов.
+     * @param from         первый раздел диапазона.
+     * @param to           раздел, следующий за последним разделом диапазона.
+     * @param partitions   общее количество разделов.
+     * @param monitor      монитор запуска.
+     * @throws IOException если произошла ошибка при чтении или записи.
+     */
+    private void redistribute(Path runDirectory, int from, int to, int partitions, ProcessingMonitor monitor)
+            throws IOException {
+        if (to - from == 1) {
+            return;
+        }
+        monitor.checkCancelled();
+        Path rangeFile = bucketFile(runDirectory, from, to);
+        int buckets = Math.min(to - from, maxFanOut);
+        int bufferSize = bufferSize(buckets + 1);
+        FlightRunWriter[] writers = new FlightRunWriter[buckets];
+        try (FlightRunReader reader = new FlightRunReader(rangeFile, bufferSize)) {
+            openBuckets(runDirectory, from, to, writers, bufferSize);
+            while (reader.next()) {
+                long specialistId = reader.getSpecialistId();
+                int partition = partitionOf(specialistId, partitions);
+                writers[bucketOf(partition, from, to, buckets)].write(specialistId, reader.getFlight());
+            }
+        } finally {
+            closeAll(writers);
+        }
+        Files.delete(rangeFile);
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            redistribute(runDirectory, rangeStart(from, to, buckets, bucket),
+                    rangeStart(from, to, buckets, bucket + 1), partitions, monitor);
+        }
+    }
+
+    private void openBuckets(Path runDirectory, int from, int to, FlightRunWriter[] writers, int bufferSize)
+            throws IOException {
+        for (int bucket = 0; bucket < writers.length; bucket++) {
+            Path file = bucketFile(runDirectory, rangeStart(from, to, writers.length, bucket),
+                    rangeStart(from, to, writers.length, bucket + 1));
+            writers[bucket] = new FlightRunWriter(file, bufferSize);
+        }
+    }
+
+    /**
+     * Возвращает первый раздел поддиапазона при делении диапазона <code>[from, to)</code>
+     * на <code>buckets</code> поддиапазонов. Согласовано с {@link #bucketOf(int, int, int, int)}.
+     */
+    private static int rangeStart(int from, int to, int buckets, int bucket) {
+        return from + (int) (((long) (to - from) * bucket + buckets - 1) / buckets);
+    }
+
+    private static int bucketOf(int partition, int from, int to, int buckets) {
+        return (int) ((long) (partition - from) * buckets / (to - from));
+    }
+
+    private static Path bucketFile(Path runDirectory, int from, int to) {
+        return to - from == 1
+                ? runFile(runDirectory, from)
+                : runDirectory.resolve(String.format("range-%04d-%04d.run", from, to));
+    }
+
+    /**
+     * Агрегирует разделы с использованием заданного количества потоков.
+     *
+     * @param runDirectory каталог временных файлов.
+     * @param partitions   количество разделов.
+     * @param specialists          копии специалистов по идентификатору.
+     * @param specialistAggregator расчет данных по месяцам для запуска.
+     * @param limitReports         накопитель отчета о близости к ограничениям.
+     * @param monitor              монитор запуска.
+     * @throws IOException если агрегация хотя бы одного раздела завершилась ошибкой.
+     */
+    private void aggregatePartitions(Path runDirectory, int partitions, Map<Long, Specialist> specialists,
+                                     SpecialistAggregator specialistAggregator,
+                                     LimitProximityCollector limitReports, ProcessingMonitor monitor)
+            throws IOException {
+        int bufferSize = bufferSize(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, partitions));
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int partition = 0; partition < partitions; partition++) {
+                Path runFile = runFile(runDirectory, partition);
+                futures.add(executor.submit(() -> {
+                    aggregatePartition(runFile, bufferSize, specialists, specialistAggregator, limitReports,
+                            monitor);
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Ошибка при агрегации раздела: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Агрегация разделов прервана.", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Читает один раздел, группирует его полеты по специалистам и обновляет их данные по месяцам.
+     *
+     * @param runFile              временный файл раздела.
+     * @param bufferSize           размер буфера чтения.
+     * @param specialists          копии специалистов по идентификатору.
+     * @param specialistAggregator расчет данных по месяцам для запуска.
+     * @param limitReports         накопитель отчета о близости к ограничениям.
+     * @param monitor              монитор запуска.
+     * @throws IOException если произошла ошибка при чтении.
+     */
+    private void aggregatePartition(Path runFile, int bufferSize, Map<Long, Specialist> specialists,
+                                    SpecialistAggregator specialistAggregator,
+                                    LimitProximityCollector limitReports, ProcessingMonitor monitor)
+            throws IOException {
+        monitor.checkCancelled();
+        Map<Long, List<Flight>> flightsBySpecialist = new HashMap<>();
+        try (FlightRunReader reader = new FlightRunReader(runFile, bufferSize)) {
+            while (reader.next()) {
+                flightsBySpecialist.computeIfAbsent(reader.getSpecialistId(), id -> new ArrayList<>())
+                        .add(reader.getFlight());
+            }
+        }
+        log.trace("Раздел {} прочитан: {} специалистов.", runFile.getFileName(), flightsBySpecialist.size());
+
+        for (Map.Entry<Long, List<Flight>> entry : flightsBySpecialist.entrySet()) {
+            Specialist specialist = specialists.get(entry.getKey());
+            if (specialist == null) {
+                log.warn("Специалист с ID {} не найден.", entry.getKey());
+                continue;
+            }
+            monitor.checkCancelled();
+            specialistAggregator.aggregate(specialist, entry.getValue(), limitReports);
+            monitor.specialistFinished();
+        }
+    }
+
+    private int bufferSize(int openFiles) {
+        long size = memoryBudgetBytes / (8L * openFiles);
+        return (int) Math.max(MIN_BUFFER_SIZE, Math.min(MAX_BUFFER_SIZE, size));
+    }
+
+    private static int partitionOf(long specialistId, int partitions) {
+        return Math.floorMod(Long.hashCode(specialistId), partitions);
+    }
+
+    private static Path runFile(Path runDirectory, int partition) {
+        return runDirectory.resolve(String.format("partition-%04d.run", partition));
+    }
+
+    private static void closeAll(FlightRunWriter[] writers) throws IOException {
+        IOException failure = null;
+        for (FlightRunWriter writer : writers) {
+            if (writer == null) {
+                continue;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void deleteRunDirectory(Path runDirectory) {
+        try (Stream<Path> files = Files.list(runDirectory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(runDirectory);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить временные файлы {}: {}", runDirectory, e.getMessage());
+        }
+    }
+}
@@ -2,8 +2,57 @@ package com.example.services;
 
 import com.example.data.models.InputData;
 import com.example.data.models.OutputData;
+import com.example.data.models.PartialOutputData;
+import com.example.data.source.FlightSource;
+
+import java.io.IOException;
+import java.util.List;
 
 public interface JsonFileProcessor {
 
-    OutputData processInputData(InputData inputData);
-}
\ No newline at end of file
+    default OutputData processInputData(InputData inputData) {
+        return processInputData(inputData, ProcessingMonitor.none());
+    }
+
+    /**
+     * Обрабатывает входные данные с отслеживанием хода обработки и возможностью отмены.
+     *
+     * @param inputData входные данные.
+     * @param monitor   монитор запуска.
+     * @return выходные данные.
+     * @throws ProcessingCancelledException если обработка отменена через монитор.
+     */
+    OutputData processInputData(InputData inputData, ProcessingMonitor monitor);
+
+    /**
+     * Читает входные данные из источника и обрабатывает их. Результат совпадает с результатом
+     * {@link #processInputData} для данных, прочитанных {@link FlightSource#readInputData()}.
+     *
+     * @param source  источник входных данных.
+     * @param monitor монитор запуска.
+     * @return выходные данные.
+     * @throws IOException                  если произошла ошибка при чтении источника.
+     * @throws ProcessingCancelledException если обработка отменена через монитор.
+     */
+    default OutputData processSource(FlightSource source, ProcessingMonitor monitor) throws IOException {
+        monitor.startStage(ProcessingProgress.Stage.PARSING, source.size());
+        return processInputData(source.readInputData(), monitor);
+    }
+
+    /**
+     * Рассчитывает промежуточные результаты для части входных данных (шарда).
+     *
+     * @param inputData входные данные шарда.
+     * @return промежуточные результаты шарда.
+     */
+    PartialOutputData processPartialInputData(InputData inputData);
+
+    /**
+     * Объединяет промежуточные результаты шардов в итоговые выходные данные. Результат совпадает
+     * с результатом {@link #processInputData} для объединенных входных данных шардов.
+     *
+     * @param partials промежуточные результаты шардов в порядке следования шардов.
+     * @return итоговые выходные данные.
+     */
+    OutputData mergePartialOutputData(List<PartialOutputData> partials);
+}
@@ -1,33 +1,91 @@
 package com.example.services;
 
 import lombok.extern.slf4j.Slf4j;
-import com.example.data.models.Flags;
 import com.example.data.models.Flight;
 import com.example.data.models.InputData;
-import com.example.data.models.MonthlyData;
 import com.example.data.models.OutputData;
+import com.example.data.models.PartialOutputData;
 import com.example.data.models.Specialist;
+import com.example.data.models.SpecialistHours;
+import com.example.data.source.FlightSource;
+import com.example.utils.CalendarTable;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.temporal.WeekFields;
-import java.util.Comparator;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.ObjLongConsumer;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Сервис для обработки данных о полетах и специалистах.
  *
  * <p>Этот класс обрабатывает входные данные, группирует полеты по специалистам, вычисляет количество часов,
- * затраченных специалистами на полеты, и обновляет флаги для каждого месяца на основе этих данных.</p>
+ * затраченных специалистами на полеты, и обновляет флаги для каждого месяца на основе этих данных
+ * (см. {@link SpecialistAggregator}).</p>
+ *
+ * <p>В том же проходе по полетам формируются сводки по налету воздушных судов и движениям
+ * в аэропортах (см. {@link UtilizationAccumulator}), а при расчете флагов — отчет о специалистах,
+ * близких к ограничениям по часам (см. {@link LimitProximityCollector}).</p>
+ *
+ * <p>Ход обработки передается в {@link ProcessingMonitor}; отмена проверяется при распределении полетов
+ * и перед расчетом каждого специалиста.</p>
+ *
+ * <p>Источники входных данных, которые делятся на части ({@link FlightSource#split(int)}), читаются
+ * параллельно в несколько потоков; части объединяются в порядке следования, поэтому результат
+ * не зависит от количества потоков.</p>
+ *
+ * <p>Обработчик не хранит состояния между вызовами: все данные запуска находятся в
+ * {@link ProcessingContext}, а входные модели не изменяются. Один экземпляр можно использовать
+ * повторно и из нескольких потоков одновременно.</p>
  */
 @Slf4j
 public class JsonFileProcessorImpl implements JsonFileProcessor {
-    private final Map<Long, Specialist> specialistMap = new HashMap<>();
-    private final Map<Long, List<Flight>> specialistFlightsMap = new HashMap<>();
+    private static final int CANCELLATION_CHECK_INTERVAL = 1024;
+
+    private final int readerThreads;
+    private final int limitReportTopCount;
+
+    /**
+     * Создает обработчик, читающий источники в количество потоков, равное числу процессоров.
+     */
+    public JsonFileProcessorImpl() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Создает обработчик.
+     *
+     * @param readerThreads количество потоков чтения источников входных данных.
+     * @throws IllegalArgumentException если количество потоков меньше единицы.
+     */
+    public JsonFileProcessorImpl(int readerThreads) {
+        this(readerThreads, LimitProximityCollector.DEFAULT_TOP_COUNT);
+    }
+
+    /**
+     * Создает обработчик.
+     *
+     * @param readerThreads       количество потоков чтения источников входных данных.
+     * @param limitReportTopCount количество специалистов, ближайших к ограничению за месяц, в отчете
+     *                            для каждого месяца.
+     * @throws IllegalArgumentException если количество потоков или специалистов в отчете меньше единицы.
+     */
+    public JsonFileProcessorImpl(int readerThreads, int limitReportTopCount) {
+        if (readerThreads < 1) {
+            throw new IllegalArgumentException("Количество потоков должно быть больше нуля.");
+        }
+        if (limitReportTopCount < 1) {
+            throw new IllegalArgumentException("Количество специалистов в отчете должно быть больше нуля.");
+        }
+        this.readerThreads = readerThreads;
+        this.limitReportTopCount = limitReportTopCount;
+    }
 
     /**
      * Обрабатывает входные данные, выполняет группировку полетов по специалистам и обновление данных по месяцам.
@@ -36,256 +94,364 @@ public class JsonFileProcessorImpl implements JsonFileProcessor {
      * данные по специалистам, которые включают часы работы и флаги для каждого месяца.</p>
      *
      * @param inputData объект {@link InputData}, содержащий данные о полетах и специалистах.
+     * @param monitor   монитор запуска.
      * @return объект {@link OutputData}, содержащий список специалистов с обновленными данными.
+     * @throws ProcessingCancelledException если обработка отменена через монитор.
      */
     @Override
-    public OutputData processInputData(InputData inputData) {
+    public OutputData processInputData(InputData inputData, ProcessingMonitor monitor) {
         log.info("Начало обработки входных данных.");
         OutputData outputData = new OutputData();
 
-        initializeSpecialists(inputData);
-        log.debug("Инициализировано {} специалистов.", specialistMap.size());
-
-        groupFlightsBySpecialist(inputData.getFlights());
-        log.debug("Группировка полетов по специалистам завершена.");
+        ProcessingContext context = createContext(inputData, monitor);
 
-        processSpecialistFlights();
+        LimitProximityCollector limitReports = new LimitProximityCollector(limitReportTopCount,
+                LimitProximityCollector.DEFAULT_WEEKLY_MARGIN_HOURS);
+        processSpecialistFlights(context, limitReports, monitor);
         log.debug("Обработка полетов специалистов завершена.");
 
-        specialistMap.values().forEach(specialist -> {
-            List<MonthlyData> sortedMonthlyData = specialist.getMonthlyData().stream()
-                    .sorted(Comparator.comparing(MonthlyData::getMonth))
-                    .toList();
-            specialist.setMonthlyData(sortedMonthlyData);
-        });
+        List<Specialist> specialists = context.inputSpecialists();
+        specialists.forEach(SpecialistAggregator::sortMonthlyData);
 
-        outputData.getSpecialists().addAll(specialistMap.values());
+        outputData.getSpecialists().addAll(specialists);
+        context.utilization().writeTo(outputData);
+        outputData.setLimitReport(limitReports.toReport());
         log.info("Обработка входных данных завершена.");
 
         return outputData;
     }
 
     /**
-     * Инициализирует специалистов на основе входных данных.
+     * Читает входные данные из источника и обрабатывает их.
+     *
+     * <p>Источник делится на части, которые читаются параллельно; специалисты и полеты частей
+     * объединяются в порядке следования частей. Этап чтения начинается с размером источника
+     * ({@link FlightSource#size()}), прочитанные байты учитывает поток, переданный источнику при создании.
+     * Отмена проверяется при чтении каждой части.</p>
      *
-     * @param inputData объект {@link InputData}, содержащий информацию о специалистах.
+     * @param source  источник входных данных.
+     * @param monitor монитор запуска.
+     * @return объект {@link OutputData}, содержащий список специалистов с обновленными данными.
+     * @throws IOException                  если произошла ошибка при чтении источника.
+     * @throws ProcessingCancelledException если обработка отменена через монитор.
      */
-    private void initializeSpecialists(InputData inputData) {
-        log.debug("Инициализация специалистов.");
-        inputData.getSpecialists().forEach(specialist -> {
-            specialistMap.put(specialist.getId(), specialist);
-            log.trace("Инициализирован специалист: {}", specialist);
-        });
+    @Override
+    public OutputData processSource(FlightSource source, ProcessingMonitor monitor) throws IOException {
+        log.info("Чтение входных данных из источника: {}", source);
+        monitor.startStage(ProcessingProgress.Stage.PARSING, source.size());
+        List<FlightSource> parts = source.split(readerThreads);
+        InputData inputData = parts.size() == 1
+                ? readPart(parts.get(0), monitor)
+                : readParts(parts, monitor);
+        log.info("Прочитано {} специалистов и {} полетов из {} частей. Начинается обработка...",
+                inputData.getSpecialists().size(), inputData.getFlights().size(), parts.size());
+
+        return processInputData(inputData, monitor);
     }
 
     /**
-     * Группирует полеты по специалистам.
+     * Рассчитывает промежуточные результаты для части входных данных (шарда).
+     *
+     * <p>Для каждого специалиста из экипажей шарда часы полетов распределяются по месяцам и по дням,
+     * флаги не вычисляются. Специалисты, отсутствующие в списке шарда, также учитываются: они могут
+     * быть описаны в другом шарде.</p>
      *
-     * @param flights список полетов, который необходимо сгруппировать.
+     * @param inputData объект {@link InputData}, содержащий данные шарда.
+     * @return объект {@link PartialOutputData} с промежуточными результатами шарда.
      */
-    private void groupFlightsBySpecialist(List<Flight> flights) {
-        log.debug("Группировка полетов по специалистам.");
-        for (Flight flight : flights) {
-            for (Long specialistId : flight.getCrew()) {
-                specialistFlightsMap
-                        .computeIfAbsent(specialistId, id -> new java.util.ArrayList<>())
-                        .add(flight);
-                log.trace("Добавлен полет {} для специалиста с ID {}", flight, specialistId);
+    @Override
+    public PartialOutputData processPartialInputData(InputData inputData) {
+        log.info("Начало расчета промежуточных результатов.");
+        ProcessingContext context = createContext(inputData, ProcessingMonitor.none());
+
+        SpecialistAggregator specialistAggregator = new SpecialistAggregator(context.calendar());
+        PartialOutputData partial = new PartialOutputData();
+        partial.getSpecialists().addAll(context.inputSpecialists());
+        for (int index = 0; index < context.specialistIndex().size(); index++) {
+            List<Flight> flights = context.flightsOf(index);
+            if (!flights.isEmpty()) {
+                long specialistId = context.specialistIndex().idOf(index);
+                partial.getHours().add(specialistAggregator.accumulate(specialistId, flights));
             }
         }
+        context.utilization().writeTo(partial.getAircraftUtilization(), partial.getAirportMovements());
+        log.info("Расчет промежуточных результатов завершен.");
+
+        return partial;
     }
 
     /**
-     * Обрабатывает полеты специалистов и обновляет данные по месяцам.
+     * Объединяет промежуточные результаты шардов в итоговые выходные данные.
+     *
+     * <p>Часы полетов одного специалиста из разных шардов суммируются, после чего вычисляются данные по
+     * месяцам и флаги. Специалисты выводятся в порядке первого появления в шардах.</p>
+     *
+     * @param partials промежуточные результаты шардов в порядке следования шардов.
+     * @return объект {@link OutputData}, содержащий список специалистов с обновленными данными.
      */
-    private void processSpecialistFlights() {
-        log.debug("Обработка полетов специалистов.");
-        for (Map.Entry<Long, List<Flight>> entry : specialistFlightsMap.entrySet()) {
-            Long specialistId = entry.getKey();
-            Specialist specialist = specialistMap.get(specialistId);
+    @Override
+    public OutputData mergePartialOutputData(List<PartialOutputData> partials) {
+        log.info("Объединение промежуточных результатов {} шардов.", partials.size());
+        Map<Long, Specialist> specialists = new LinkedHashMap<>();
+        Map<Long, SpecialistHours> hoursBySpecialist = new LinkedHashMap<>();
+        UtilizationAccumulator utilization = new UtilizationAccumulator();
+        LimitProximityCollector limitReports = new LimitProximityCollector(limitReportTopCount,
+                LimitProximityCollector.DEFAULT_WEEKLY_MARGIN_HOURS);
+
+        for (PartialOutputData partial : partials) {
+            partial.getSpecialists().forEach(specialist ->
+                    specialists.put(specialist.getId(), SpecialistAggregator.copyOf(specialist)));
+            partial.getHours().forEach(hours -> hoursBySpecialist
+                    .computeIfAbsent(hours.getId(), id -> new SpecialistHours(id, new HashMap<>(), new HashMap<>()))
+                    .merge(hours));
+            utilization.merge(partial.getAircraftUtilization(), partial.getAirportMovements());
+        }
+
+        CalendarTable.Builder calendar = CalendarTable.builder();
+        hoursBySpecialist.values().forEach(hours -> hours.getDailyHours().keySet().forEach(calendar::include));
+        SpecialistAggregator specialistAggregator = new SpecialistAggregator(calendar.build());
+        hoursBySpecialist.forEach((specialistId, hours) -> {
+            Specialist specialist = specialists.get(specialistId);
             if (specialist == null) {
                 log.warn("Специалист с ID {} не найден.", specialistId);
-                continue;
+                return;
             }
+            specialistAggregator.updateMonthlyData(specialist, hours, limitReports);
+        });
+        specialists.values().forEach(SpecialistAggregator::sortMonthlyData);
 
-            log.trace("Обработка полетов для специалиста: {}", specialist);
-            Map<String, List<Flight>> flightsByMonth = entry.getValue().stream()
-                    .collect(Collectors.groupingBy(Flight::getTakeoffMonth));
+        OutputData outputData = new OutputData();
+        outputData.getSpecialists().addAll(specialists.values());
+        utilization.writeTo(outputData);
+        outputData.setLimitReport(limitReports.toReport());
+        log.info("Объединение промежуточных результатов завершено.");
 
-            for (Map.Entry<String, List<Flight>> monthEntry : flightsByMonth.entrySet()) {
-                List<Flight> flights = monthEntry.getValue();
-                log.trace("Обновление данных за месяц {} для специалиста {}", monthEntry.getKey(), specialist);
-                updateMonthlyData(specialist, flights);
-            }
-        }
+        return outputData;
     }
 
     /**
-     * Возвращает или создает данные по месяцу для специалиста.
+     * Читает части источника параллельно и объединяет их в порядке следования.
      *
-     * @param specialist специалист, для которого необходимо создать данные по месяцу.
-     * @param month      месяц, для которого требуется данные.
-     * @return объект {@link MonthlyData} для указанного месяца.
+     * @param parts   части источника.
+     * @param monitor монитор запуска.
+     * @return входные данные всех частей.
+     * @throws IOException если произошла ошибка при чтении части.
      */
-    private MonthlyData getOrCreateMonthlyData(Specialist specialist, String month) {
-        return specialist.getMonthlyData().stream()
-                .filter(data -> data.getMonth().equals(month))
-                .findFirst()
-                .orElseGet(() -> {
-                    MonthlyData newData = new MonthlyData(month, 0, new Flags());
-                    specialist.getMonthlyData().add(newData);
-                    log.trace("Созданы новые данные за месяц {} для специалиста {}", month, specialist);
-                    return newData;
-                });
+    private InputData readParts(List<FlightSource> parts, ProcessingMonitor monitor) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(readerThreads, parts.size()));
+        try {
+            List<Future<InputData>> futures = new ArrayList<>();
+            for (FlightSource part : parts) {
+                futures.add(executor.submit(() -> readPart(part, monitor)));
+            }
+            List<InputData> partData = new ArrayList<>(futures.size());
+            int specialists = 0;
+            int flights = 0;
+            for (Future<InputData> future : futures) {
+                InputData data = future.get();
+                partData.add(data);
+                specialists += data.getSpecialists().size();
+                flights += data.getFlights().size();
+            }
+            InputData inputData = new InputData(new ArrayList<>(specialists), new ArrayList<>(flights));
+            for (InputData data : partData) {
+                inputData.getSpecialists().addAll(data.getSpecialists());
+                inputData.getFlights().addAll(data.getFlights());
+            }
+            return inputData;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("Ошибка при чтении источника входных данных: " + e.getCause().getMessage(),
+                    e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Чтение источника входных данных прервано.", e);
+        } finally {
+            executor.shutdownNow();
+        }
     }
 
     /**
-     * Обновляет данные по месяцам на основе полетов специалистов.
+     * Читает одну часть источника в память.
      *
-     * @param specialist специалист, для которого обновляются данные.
-     * @param flights    список полетов, на основе которых обновляются данные.
+     * @param part    часть источника.
+     * @param monitor монитор запуска.
+     * @return входные данные части.
+     * @throws IOException                  если произошла ошибка при чтении части.
+     * @throws ProcessingCancelledException если обработка отменена через монитор.
      */
-    private void updateMonthlyData(Specialist specialist, List<Flight> flights) {
-        log.debug("Обновление данных по месяцам для специалиста {}.", specialist);
-
-        Map<String, Long> monthlyFlightHours = new HashMap<>();
-        Map<LocalDate, Long> dailyFlightHours = new HashMap<>();
-        Map<LocalDate, Long> weeklyFlightHours = new HashMap<>();
-
-        for (Flight flight : flights) {
-            if (flight.getTakeoffTime().isAfter(flight.getLandingTime())) {
-                log.error("Данные не учтены, некорректные данные: время взлета {} после времени посадки {}. " +
-                                "Специалист: {}, Полет: {}",
-                        flight.getTakeoffTime(), flight.getLandingTime(),
-                        specialist.getName(), flight);
-            } else {
-                log.trace("Обработка полета {} для специалиста {}", flight, specialist);
-                LocalDate startDate = flight.getTakeoffTime().toLocalDate();
-                LocalDate endDate = flight.getLandingTime().toLocalDate();
-
-                distributeFlightHoursByMonth(startDate, endDate, flight.getFlightDurationHours(), monthlyFlightHours,
-                        flight.getTakeoffTime(), flight.getLandingTime()
-                );
-
-
-                distributeFlightHours(flight.getTakeoffTime(), flight.getLandingTime(),
-                        flight.getFlightDurationHours(), dailyFlightHours);
+    private static InputData readPart(FlightSource part, ProcessingMonitor monitor) throws IOException {
+        log.debug("Чтение части источника: {}", part);
+        InputData inputData = new InputData(new ArrayList<>(), new ArrayList<>());
+        part.read(new FlightSource.Sink() {
+            @Override
+            public void specialist(Specialist specialist) {
+                inputData.getSpecialists().add(specialist);
             }
-        }
-
-        monthlyFlightHours.forEach((month, hours) -> {
-            MonthlyData data = getOrCreateMonthlyData(specialist, month);
-            data.addFlightTime(hours);
-            log.trace("Обновлены часы за месяц {}: {} часов для специалиста {}", month, hours, specialist);
-        });
-
-        Map<String, Long> maxWeeklyHoursPerMonth = new HashMap<>();
 
-        dailyFlightHours.forEach((date, hours) -> {
-            LocalDate startOfWeek = date.with(WeekFields.ISO.dayOfWeek(), 1);
-            String month = startOfWeek.getYear() + "-" + String.format("%02d", startOfWeek.getMonthValue());
-            weeklyFlightHours.merge(startOfWeek, hours, Long::sum);
-            maxWeeklyHoursPerMonth.merge(month, weeklyFlightHours.get(startOfWeek), Long::max);
+            @Override
+            public void flight(Flight flight) {
+                inputData.getFlights().add(flight);
+                if (inputData.getFlights().size() % CANCELLATION_CHECK_INTERVAL == 0) {
+                    monitor.checkCancelled();
+                }
+            }
         });
+        return inputData;
+    }
 
-        Map<String, Long> dailyMaxHoursPerMonth = new HashMap<>();
+    /**
+     * Создает контекст запуска: присваивает специалистам плотные индексы, копирует специалистов
+     * и группирует полеты по специалистам.
+     *
+     * @param inputData объект {@link InputData}, содержащий данные о полетах и специалистах.
+     * @param monitor   монитор запуска.
+     * @return контекст запуска.
+     */
+    private ProcessingContext createContext(InputData inputData, ProcessingMonitor monitor) {
+        List<Specialist> inputSpecialists = inputData.getSpecialists().stream()
+                .filter(specialist -> {
+                    if (specialist.getId() == null) {
+                        log.warn("Специалист без идентификатора пропущен: {}", specialist);
+                        return false;
+                    }
+                    return true;
+                })
+                .toList();
+        SpecialistIndex specialistIndex = new SpecialistIndex(inputSpecialists.stream()
+                .mapToLong(Specialist::getId)
+                .toArray());
+        Specialist[] specialists = initializeSpecialists(inputSpecialists, specialistIndex);
+        log.debug("Инициализировано {} специалистов.", specialists.length);
+
+        UtilizationAccumulator utilization = new UtilizationAccumulator();
+        CalendarTable.Builder calendar = CalendarTable.builder();
+        monitor.startStage(ProcessingProgress.Stage.GROUPING, inputData.getFlights().size());
+        int[] flightCounts = countFlightsBySpecialist(inputData.getFlights(), specialistIndex, utilization, calendar,
+                monitor);
+        int[] flightOffsets = new int[specialistIndex.size() + 1];
+        for (int index = 0; index < specialistIndex.size(); index++) {
+            flightOffsets[index + 1] = flightOffsets[index] + flightCounts[index];
+        }
+        Flight[] flights = groupFlightsBySpecialist(inputData.getFlights(), specialistIndex, flightOffsets);
+        log.debug("Группировка полетов по специалистам завершена.");
 
-        dailyFlightHours.forEach((date, hours) -> {
-            String month = date.getYear() + "-" + String.format("%02d", date.getMonthValue());
-            dailyMaxHoursPerMonth.merge(month, hours, Long::max);
-        });
+        return new ProcessingContext(specialistIndex, specialists, flightOffsets, flights, utilization,
+                calendar.build());
+    }
 
-        monthlyFlightHours.keySet().forEach(month -> {
-            MonthlyData data = getOrCreateMonthlyData(specialist, month);
-            long maxDailyHoursForMonth = dailyMaxHoursPerMonth.getOrDefault(month, 0L);
-            long maxWeeklyHoursForMonth = maxWeeklyHoursPerMonth.getOrDefault(month, 0L);
-            data.updateFlags(maxDailyHoursForMonth, maxWeeklyHoursForMonth);
-            log.trace("Обновлены флаги за месяц {} для специалиста {}", month, specialist);
-        });
+    /**
+     * Инициализирует специалистов на основе входных данных.
+     *
+     * <p>Для каждого специалиста создается копия, поэтому объекты из {@link InputData} не изменяются.
+     * При повторении идентификатора используется последний специалист с этим идентификатором.</p>
+     *
+     * @param inputSpecialists специалисты из входных данных.
+     * @param specialistIndex  индекс специалистов.
+     * @return копии специалистов по индексу.
+     */
+    private Specialist[] initializeSpecialists(List<Specialist> inputSpecialists, SpecialistIndex specialistIndex) {
+        log.debug("Инициализация специалистов.");
+        Specialist[] specialists = new Specialist[specialistIndex.size()];
+        for (Specialist specialist : inputSpecialists) {
+            specialists[specialistIndex.indexOf(specialist.getId())] = SpecialistAggregator.copyOf(specialist);
+            log.trace("Инициализирован специалист: {}", specialist);
+        }
+        return specialists;
     }
 
     /**
-     * Распределяет часы полета по месяцам.
+     * Подсчитывает количество полетов каждого специалиста и в том же проходе накапливает сводки
+     * по воздушным судам и аэропортам и диапазон дат для таблицы календаря. Специалистам,
+     * встретившимся только в экипажах, присваиваются новые индексы.
      *
-     * @param startDate          дата начала полета.
-     * @param endDate            дата окончания полета.
-     * @param totalDuration      продолжительность полета в часах.
-     * @param monthlyFlightHours карта для накопления часов по месяцам.
-     * @param takeoffTime        время взлета.
-     * @param landingTime        время посадки.
+     * @param flights         список полетов.
+     * @param specialistIndex индекс специалистов.
+     * @param utilization     накопитель сводок по воздушным судам и аэропортам.
+     * @param calendar        построитель таблицы календаря.
+     * @param monitor         монитор запуска.
+     * @return количество полетов по индексу специалиста.
      */
-    private void distributeFlightHoursByMonth(LocalDate startDate, LocalDate endDate, long totalDuration,
-                                              Map<String, Long> monthlyFlightHours,
-                                              LocalDateTime takeoffTime, LocalDateTime landingTime) {
-        long remainingDuration = totalDuration;
-
-        LocalDate currentDate = startDate;
-        while (!currentDate.isAfter(endDate)) {
-            long hoursForDay;
-
-            if (currentDate.equals(takeoffTime.toLocalDate())) {
-                hoursForDay = Math.min(24L - takeoffTime.getHour(), remainingDuration);
-            } else if (currentDate.equals(landingTime.toLocalDate())) {
-                hoursForDay = Math.min(landingTime.getHour(), remainingDuration);
-            } else {
-                hoursForDay = Math.min(24, remainingDuration);
+    private int[] countFlightsBySpecialist(List<Flight> flights, SpecialistIndex specialistIndex,
+                                           UtilizationAccumulator utilization, CalendarTable.Builder calendar,
+                                           ProcessingMonitor monitor) {
+        int[] counts = new int[Math.max(16, specialistIndex.size())];
+        for (Flight flight : flights) {
+            utilization.accept(flight);
+            calendar.include(flight.getTakeoffTime()).include(flight.getLandingTime());
+            for (long specialistId : flight.getCrew()) {
+                int index = specialistIndex.getOrAdd(specialistId);
+                if (index >= counts.length) {
+                    counts = Arrays.copyOf(counts, Math.max(counts.length * 2, index + 1));
+                }
+                counts[index]++;
             }
-            remainingDuration -= hoursForDay;
-
-            String currentMonth = currentDate.getYear() + "-" + String.format("%02d", currentDate.getMonthValue());
-            monthlyFlightHours.merge(currentMonth, hoursForDay, Long::sum);
-            log.trace("Добавлено {} часов за день {} в месяц {}", hoursForDay, currentDate, currentMonth);
+            monitor.flightAggregated();
+        }
+        return counts;
+    }
 
-            currentDate = currentDate.plusDays(1);
+    /**
+     * Группирует полеты по специалистам в один массив с сохранением порядка полетов.
+     *
+     * @param flights         список полетов, который необходимо сгруппировать.
+     * @param specialistIndex индекс специалистов, содержащий всех членов экипажей.
+     * @param flightOffsets   начало полетов каждого специалиста в итоговом массиве.
+     * @return полеты, сгруппированные по индексу специалиста.
+     */
+    private Flight[] groupFlightsBySpecialist(List<Flight> flights, SpecialistIndex specialistIndex,
+                                              int[] flightOffsets) {
+        log.debug("Группировка полетов по специалистам.");
+        int[] positions = Arrays.copyOf(flightOffsets, specialistIndex.size());
+        Flight[] flightsBySpecialist = new Flight[flightOffsets[specialistIndex.size()]];
+        for (Flight flight : flights) {
+            for (long specialistId : flight.getCrew()) {
+                flightsBySpecialist[positions[specialistIndex.indexOf(specialistId)]++] = flight;
+                log.trace("Добавлен полет {} для специалиста с ID {}", flight, specialistId);
+            }
         }
+        return flightsBySpecialist;
     }
 
     /**
-     * Распределяет часы полета по дням.
+     * Обрабатывает полеты специалистов и обновляет данные по месяцам.
      *
-     * @param takeoffTime      время взлета.
-     * @param landingTime      время посадки.
-     * @param totalDuration    продолжительность полета в часах.
-     * @param dailyFlightHours карта для накопления часов по дням.
+     * @param context      контекст запуска.
+     * @param limitReports накопитель отчета о близости к ограничениям.
+     * @param monitor      монитор запуска.
+     * @throws ProcessingCancelledException если обработка отменена через монитор.
      */
-    private void distributeFlightHours(LocalDateTime takeoffTime, LocalDateTime landingTime, long totalDuration,
-                                       Map<LocalDate, Long> dailyFlightHours) {
-        long remainingDuration = totalDuration;
-
-        LocalDate startDate = takeoffTime.toLocalDate();
-        LocalDate endDate = landingTime.toLocalDate();
-
-        ObjLongConsumer<LocalDate> addHoursForDay = (date, hours) -> {
-            dailyFlightHours.merge(date, hours, Long::sum);
-            log.trace("Добавлено {} часов за день {}", hours, date);
-        };
-
-        if (startDate.equals(endDate)) {
-            long hoursForDay = Math.min(remainingDuration, 24L);
-            addHoursForDay.accept(startDate, hoursForDay);
-            remainingDuration -= hoursForDay;
-        } else {
-            long hoursForFirstDay = Math.min(24L - takeoffTime.getHour(), remainingDuration);
-            addHoursForDay.accept(startDate, hoursForFirstDay);
-            remainingDuration -= hoursForFirstDay;
-
-            long hoursForLastDay = Math.min(landingTime.getHour(), remainingDuration);
-            addHoursForDay.accept(endDate, hoursForLastDay);
-            remainingDuration -= hoursForLastDay;
-
-            LocalDate currentDate = startDate.plusDays(1);
-            while (currentDate.isBefore(endDate)) {
-                long hoursForDay = Math.min(24, remainingDuration);
-                addHoursForDay.accept(currentDate, hoursForDay);
-                remainingDuration -= hoursForDay;
-                currentDate = currentDate.plusDays(1);
+    private void processSpecialistFlights(ProcessingContext context, LimitProximityCollector limitReports,
+                                          ProcessingMonitor monitor) {
+        log.debug("Обработка полетов специалистов.");
+        int specialistsWithFlights = 0;
+        for (int index = 0; index < context.specialistIndex().size(); index++) {
+            if (context.specialist(index) != null && context.flightCount(index) > 0) {
+                specialistsWithFlights++;
             }
         }
-        while (remainingDuration > 0) {
-            long hoursForDay = Math.min(24, remainingDuration);
-            addHoursForDay.accept(startDate, hoursForDay);
-            remainingDuration -= hoursForDay;
-            startDate = startDate.plusDays(1);
+        monitor.startStage(ProcessingProgress.Stage.AGGREGATION, specialistsWithFlights);
+
+        SpecialistAggregator specialistAggregator = new SpecialistAggregator(context.calendar());
+        for (int index = 0; index < context.specialistIndex().size(); index++) {
+            List<Flight> flights = context.flightsOf(index);
+            if (flights.isEmpty()) {
+                continue;
+            }
+            Specialist specialist = context.specialist(index);
+            if (specialist == null) {
+                log.warn("Специалист с ID {} не найден.", context.specialistIndex().idOf(index));
+                continue;
+            }
+
+            monitor.checkCancelled();
+            specialistAggregator.aggregate(specialist, flights, limitReports);
+            monitor.specialistFinished();
         }
     }
-}
\ No newline at end of file
+}
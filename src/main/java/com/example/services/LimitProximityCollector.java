@@ -0,0 +1,141 @@
+package com.example.services;
+
+import com.example.data.models.LimitReport;
+import com.example.data.models.LimitReportEntry;
+import com.example.data.models.MonthlyData;
+import com.example.data.models.MonthlyLimitReport;
+import com.example.data.models.Specialist;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Накопитель отчета о специалистах, близких к ограничениям по часам полета (см. {@link LimitReport}).
+ *
+ * <p>Данные передаются в накопитель при расчете флагов по месяцам, поэтому отчет формируется без
+ * повторного прохода по специалистам. Для каждого месяца хранится ограниченная куча из
+ * <code>topCount</code> специалистов, ближайших к ограничению за месяц: в вершине кучи находится
+ * самый удаленный от ограничения специалист, который вытесняется более близким. Специалисты, чей
+ * максимальный налет за неделю отличается от ограничения не более чем на <code>weeklyMarginHours</code>,
+ * собираются в список. Этот список не ограничен и в худшем случае содержит всех специалистов месяца.
+ * Сортируются только итоговые записи отчета.</p>
+ *
+ * <p>Экземпляр создается на один запуск и может использоваться из нескольких потоков.</p>
+ */
+class LimitProximityCollector {
+    static final int DEFAULT_TOP_COUNT = 100;
+    static final long DEFAULT_WEEKLY_MARGIN_HOURS = 4;
+
+    /**
+     * Порядок записей: ближе к ограничению, затем меньший идентификатор.
+     */
+    private static final Comparator<Candidate> CLOSEST_FIRST = Comparator
+            .comparingLong(Candidate::distance)
+            .thenComparingLong(Candidate::id);
+
+    private final int topCount;
+    private final long weeklyMarginHours;
+    private final Map<String, PriorityQueue<Candidate>> closestToMonthlyLimit = new TreeMap<>();
+    private final Map<String, List<Candidate>> nearWeeklyLimit = new TreeMap<>();
+
+    LimitProximityCollector() {
+        this(DEFAULT_TOP_COUNT, DEFAULT_WEEKLY_MARGIN_HOURS);
+    }
+
+    /**
+     * Создает накопитель отчета.
+     *
+     * @param topCount          количество специалистов, ближайших к ограничению за месяц, для каждого месяца.
+     * @param weeklyMarginHours допустимое отклонение максимального налета за неделю от ограничения.
+     * @throws IllegalArgumentException если количество специалистов меньше единицы или отклонение отрицательно.
+     */
+    LimitProximityCollector(int topCount, long weeklyMarginHours) {
+        if (topCount < 1) {
+            throw new IllegalArgumentException("Количество специалистов в отчете должно быть больше нуля.");
+        }
+        if (weeklyMarginHours < 0) {
+            throw new IllegalArgumentException("Допустимое отклонение не может быть отрицательным.");
+        }
+        this.topCount = topCount;
+        this.weeklyMarginHours = weeklyMarginHours;
+    }
+
+    /**
+     * Учитывает данные специалиста за месяц.
+     *
+     * @param specialist     специалист.
+     * @param month          месяц в формате <code>yyyy-MM</code>.
+     * @param monthlyHours   налет специалиста за месяц.
+     * @param weeklyMaxHours максимальный налет специалиста за неделю, отнесенный к месяцу.
+     */
+    synchronized void accept(Specialist specialist, String month, long monthlyHours, long weeklyMaxHours) {
+        long monthlyDistance = Math.abs(monthlyHours - MonthlyData.MONTHLY_HOURS_LIMIT);
+        PriorityQueue<Candidate> heap = closestToMonthlyLimit
+                .computeIfAbsent(month, key -> new PriorityQueue<>(CLOSEST_FIRST.reversed()));
+        if (heap.size() < topCount) {
+            heap.add(new Candidate(specialist.getId(), specialist.getName(), monthlyHours, monthlyDistance));
+        } else if (isCloser(monthlyDistance, specialist.getId(), heap.peek())) {
+            heap.poll();
+            heap.add(new Candidate(specialist.getId(), specialist.getName(), monthlyHours, monthlyDistance));
+        }
+
+        long weeklyDistance = Math.abs(weeklyMaxHours - MonthlyData.WEEKLY_HOURS_LIMIT);
+        if (weeklyDistance <= weeklyMarginHours) {
+            nearWeeklyLimit.computeIfAbsent(month, key -> new ArrayList<>())
+                    .add(new Candidate(specialist.getId(), specialist.getName(), weeklyMaxHours, weeklyDistance));
+        }
+    }
+
+    /**
+     * Формирует отчет по накопленным данным.
+     *
+     * @return отчет с месяцами в порядке возрастания.
+     */
+    synchronized LimitReport toReport() {
+        Map<String, MonthlyLimitReport> months = new TreeMap<>();
+        closestToMonthlyLimit.forEach((month, heap) ->
+                months.computeIfAbsent(month, LimitProximityCollector::emptyMonth).getClosestToMonthlyLimit()
+                        .addAll(toEntries(heap)));
+        nearWeeklyLimit.forEach((month, candidates) ->
+                months.computeIfAbsent(month, LimitProximityCollector::emptyMonth).getNearWeeklyLimit()
+                        .addAll(toEntries(candidates)));
+        return new LimitReport(MonthlyData.MONTHLY_HOURS_LIMIT, topCount, MonthlyData.WEEKLY_HOURS_LIMIT,
+                weeklyMarginHours, new ArrayList<>(months.values()));
+    }
+
+    /**
+     * Проверяет, ближе ли специалист к ограничению, чем самый удаленный специалист кучи.
+     * Кандидат создается только для специалистов, попадающих в кучу.
+     */
+    private static boolean isCloser(long distance, long id, Candidate farthest) {
+        return distance < farthest.distance() || (distance == farthest.distance() && id < farthest.id());
+    }
+
+    private static MonthlyLimitReport emptyMonth(String month) {
+        return new MonthlyLimitReport(month, new ArrayList<>(), new ArrayList<>());
+    }
+
+    private static List<LimitReportEntry> toEntries(Iterable<Candidate> candidates) {
+        List<Candidate> sorted = new ArrayList<>();
+        candidates.forEach(sorted::add);
+        sorted.sort(CLOSEST_FIRST);
+        return sorted.stream()
+                .map(candidate -> new LimitReportEntry(candidate.id(), candidate.name(), candidate.hours()))
+                .toList();
+    }
+
+    /**
+     * Кандидат в отчет.
+     *
+     * @param id       идентификатор специалиста.
+     * @param name     имя специалиста.
+     * @param hours    количество часов.
+     * @param distance удаленность количества часов от ограничения.
+     */
+    private record Candidate(long id, String name, long hours, long distance) {
+    }
+}
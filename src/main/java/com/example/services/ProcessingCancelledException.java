@@ -0,0 +1,14 @@
+package com.example.services;
+
+/**
+ * Исключение, выбрасываемое при отмене обработки через {@link ProcessingMonitor#cancel()}.
+ *
+ * <p>Обработка прерывается в ближайшей точке проверки: между специалистами, между разделами внешней
+ * агрегации или при очередном чтении входного файла. Выходные данные при этом не формируются.</p>
+ */
+public class ProcessingCancelledException extends RuntimeException {
+
+    public ProcessingCancelledException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.services;
+
+import com.example.data.models.Flight;
+import com.example.data.models.Specialist;
+import com.example.utils.CalendarTable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Состояние одного запуска обработки входных данных.
+ *
+ * <p>Контекст создается заново при каждом вызове {@link JsonFileProcessor#processInputData} и не передается
+ * другим запускам. Благодаря этому один экземпляр обработчика может одновременно выполнять несколько
+ * запусков без взаимного влияния. Компоненты контекста (массивы, копии специалистов, накопитель сводок)
+ * не копируются и остаются изменяемыми: копии специалистов дополняются данными по месяцам в ходе
+ * запуска, поэтому контекст нельзя использовать за пределами запуска, который его создал.</p>
+ *
+ * <p>Данные по специалистам хранятся в массивах, индексированных плотным индексом специалиста
+ * (см. {@link SpecialistIndex}). Полеты специалиста с индексом <code>i</code> расположены в массиве
+ * <code>flights</code> с позиции <code>flightOffsets[i]</code> до <code>flightOffsets[i + 1]</code>.</p>
+ *
+ * @param specialistIndex индекс специалистов из входных данных и экипажей.
+ * @param specialists     копии специалистов из входных данных по индексу; <code>null</code> для специалистов,
+ *                        встретившихся только в экипажах.
+ * @param flightOffsets   начало полетов каждого специалиста в массиве <code>flights</code>.
+ * @param flights         полеты, сгруппированные по индексу специалиста.
+ * @param utilization     накопленные сводки по воздушным судам и аэропортам.
+ * @param calendar        таблица календаря, покрывающая даты всех полетов.
+ */
+record ProcessingContext(SpecialistIndex specialistIndex,
+                         Specialist[] specialists,
+                         int[] flightOffsets,
+                         Flight[] flights,
+                         UtilizationAccumulator utilization,
+                         CalendarTable calendar) {
+
+    /**
+     * Возвращает копию специалиста из входных данных по индексу.
+     *
+     * @param index индекс специалиста.
+     * @return специалист или <code>null</code>, если специалист отсутствует во входных данных.
+     */
+    Specialist specialist(int index) {
+        return index < specialists.length ? specialists[index] : null;
+    }
+
+    /**
+     * Возвращает количество полетов специалиста.
+     *
+     * @param index индекс специалиста.
+     * @return количество полетов.
+     */
+    int flightCount(int index) {
+        return flightOffsets[index + 1] - flightOffsets[index];
+    }
+
+    /**
+     * Возвращает полеты специалиста без копирования.
+     *
+     * @param index индекс специалиста.
+     * @return неизменяемый список полетов специалиста.
+     */
+    List<Flight> flightsOf(int index) {
+        return Collections.unmodifiableList(Arrays.asList(flights)
+                .subList(flightOffsets[index], flightOffsets[index + 1]));
+    }
+
+    /**
+     * Возвращает копии специалистов из входных данных в исходном порядке.
+     *
+     * @return список специалистов.
+     */
+    List<Specialist> inputSpecialists() {
+        List<Specialist> result = new ArrayList<>(specialists.length);
+        for (Specialist specialist : specialists) {
+            if (specialist != null) {
+                result.add(specialist);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,228 @@
+package com.example.services;
+
+import com.example.services.ProcessingProgress.Stage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Отслеживание хода и отмена одного запуска обработки.
+ *
+ * <p>Обработчики увеличивают счетчики прочитанных байт, распределенных полетов и завершенных специалистов.
+ * Время проверяется не на каждом событии, а на каждом 1024-м полете и 16-м специалисте, поэтому накладные
+ * расходы на горячих циклах сводятся к увеличению счетчика. Если с предыдущего снимка прошло не меньше
+ * заданного интервала, снимок {@link ProcessingProgress} передается {@link ProgressListener}.</p>
+ *
+ * <p>Отмена кооперативная: после вызова {@link #cancel()} обработчик выбрасывает
+ * {@link ProcessingCancelledException} в ближайшей точке проверки — между специалистами, между разделами
+ * внешней агрегации, в точках снимка и при чтении входного файла. Экземпляр используется для одного
+ * запуска и может обновляться из нескольких потоков.</p>
+ */
+@Slf4j
+public class ProcessingMonitor {
+    private static final int FLIGHT_SAMPLE_MASK = 1024 - 1;
+    private static final int SPECIALIST_SAMPLE_MASK = 16 - 1;
+    private static final Duration SILENT_INTERVAL = Duration.ofDays(365);
+
+    private final ProgressListener listener;
+    private final long intervalNanos;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong lastReportNanos = new AtomicLong(startNanos);
+
+    private final AtomicLong bytesParsed = new AtomicLong();
+    private final AtomicLong flightsAggregated = new AtomicLong();
+    private final AtomicLong specialistsFinished = new AtomicLong();
+    private volatile long totalBytes = -1;
+    private volatile long totalFlights = -1;
+    private volatile long totalSpecialists = -1;
+
+    private volatile Stage stage = Stage.PARSING;
+    private volatile long stageStartNanos = startNanos;
+    private volatile boolean cancelled;
+
+    /**
+     * Создает монитор запуска.
+     *
+     * @param listener получатель сведений о ходе обработки.
+     * @param interval минимальный интервал между снимками.
+     */
+    public ProcessingMonitor(ProgressListener listener, Duration interval) {
+        this.listener = listener;
+        this.intervalNanos = interval.toNanos();
+    }
+
+    /**
+     * Создает монитор без получателя сведений о ходе обработки, который можно только отменить.
+     *
+     * @return новый монитор.
+     */
+    public static ProcessingMonitor none() {
+        return new ProcessingMonitor(progress -> {
+        }, SILENT_INTERVAL);
+    }
+
+    /**
+     * Отмечает начало этапа обработки и сообщает о нем получателю.
+     *
+     * @param nextStage этап обработки.
+     * @param total     общее количество единиц работы этапа (байт, полетов или специалистов)
+     *                  или <code>-1</code>, если оно неизвестно.
+     * @throws ProcessingCancelledException если обработка отменена.
+     */
+    public void startStage(Stage nextStage, long total) {
+        checkCancelled();
+        switch (nextStage) {
+            case PARSING -> totalBytes = total;
+            case GROUPING -> totalFlights = total;
+            case AGGREGATION -> totalSpecialists = total;
+        }
+        long now = System.nanoTime();
+        stage = nextStage;
+        stageStartNanos = now;
+        lastReportNanos.set(now);
+        report(now);
+    }
+
+    /**
+     * Возвращает поток, учитывающий прочитанные из него байты и проверяющий отмену при каждом чтении.
+     *
+     * @param in исходный поток входного файла.
+     * @return поток с учетом прочитанных байт.
+     */
+    public InputStream track(InputStream in) {
+        return new TrackingInputStream(in);
+    }
+
+    /**
+     * Учитывает полет, распределенный по специалистам.
+     *
+     * @throws ProcessingCancelledException если обработка отменена (проверяется в точках снимка).
+     */
+    public void flightAggregated() {
+        if ((flightsAggregated.incrementAndGet() & FLIGHT_SAMPLE_MASK) == 0) {
+            sample();
+        }
+    }
+
+    /**
+     * Учитывает специалиста, для которого расчет завершен.
+     *
+     * @throws ProcessingCancelledException если обработка отменена (проверяется в точках снимка).
+     */
+    public void specialistFinished() {
+        if ((specialistsFinished.incrementAndGet() & SPECIALIST_SAMPLE_MASK) == 0) {
+            sample();
+        }
+    }
+
+    /**
+     * Запрашивает отмену обработки.
+     */
+    public void cancel() {
+        if (!cancelled) {
+            cancelled = true;
+            log.info("Запрошена отмена обработки.");
+        }
+    }
+
+    /**
+     * Проверяет, запрошена ли отмена обработки.
+     *
+     * @return <code>true</code>, если обработка отменена.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Прерывает обработку, если запрошена отмена.
+     *
+     * @throws ProcessingCancelledException если обработка отменена.
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new ProcessingCancelledException("Обработка отменена.");
+        }
+    }
+
+    /**
+     * Возвращает текущий снимок хода обработки.
+     *
+     * @return снимок хода обработки.
+     */
+    public ProcessingProgress snapshot() {
+        return snapshot(System.nanoTime());
+    }
+
+    private void sample() {
+        checkCancelled();
+        long now = System.nanoTime();
+        long last = lastReportNanos.get();
+        if (now - last >= intervalNanos && lastReportNanos.compareAndSet(last, now)) {
+            report(now);
+        }
+    }
+
+    private synchronized void report(long now) {
+        listener.onProgress(snapshot(now));
+    }
+
+    private ProcessingProgress snapshot(long now) {
+        Stage currentStage = stage;
+        long done = switch (currentStage) {
+            case PARSING -> bytesParsed.get();
+            case GROUPING -> flightsAggregated.get();
+            case AGGREGATION -> specialistsFinished.get();
+        };
+        long total = switch (currentStage) {
+            case PARSING -> totalBytes;
+            case GROUPING -> totalFlights;
+            case AGGREGATION -> totalSpecialists;
+        };
+        Duration estimatedRemaining = null;
+        if (total > 0 && done > 0 && done <= total) {
+            double stageElapsed = now - stageStartNanos;
+            estimatedRemaining = Duration.ofNanos((long) (stageElapsed * (total - done) / done));
+        }
+        return new ProcessingProgress(currentStage, bytesParsed.get(), totalBytes, flightsAggregated.get(),
+                totalFlights, specialistsFinished.get(), totalSpecialists, Duration.ofNanos(now - startNanos),
+                estimatedRemaining);
+    }
+
+    /**
+     * Поток, учитывающий прочитанные байты.
+     */
+    private final class TrackingInputStream extends FilterInputStream {
+
+        private TrackingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                bytesRead(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                bytesRead(count);
+            }
+            return count;
+        }
+
+        private void bytesRead(int count) {
+            bytesParsed.addAndGet(count);
+            sample();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.services;
+
+import java.time.Duration;
+
+/**
+ * Снимок хода обработки входных данных.
+ *
+ * <p>Общие количества, неизвестные на текущем этапе, равны <code>-1</code>.</p>
+ *
+ * @param stage               текущий этап обработки.
+ * @param bytesParsed         количество прочитанных байт входного файла.
+ * @param totalBytes          размер входного файла в байтах.
+ * @param flightsAggregated   количество полетов, распределенных по специалистам.
+ * @param totalFlights        общее количество полетов.
+ * @param specialistsFinished количество специалистов, для которых расчет завершен.
+ * @param totalSpecialists    общее количество специалистов с полетами.
+ * @param elapsed             время с начала обработки.
+ * @param estimatedRemaining  оценка оставшегося времени текущего этапа или <code>null</code>,
+ *                            если оценка пока невозможна.
+ */
+public record ProcessingProgress(Stage stage,
+                                 long bytesParsed,
+                                 long totalBytes,
+                                 long flightsAggregated,
+                                 long totalFlights,
+                                 long specialistsFinished,
+                                 long totalSpecialists,
+                                 Duration elapsed,
+                                 Duration estimatedRemaining) {
+
+    /**
+     * Этапы обработки входных данных.
+     */
+    public enum Stage {
+        /**
+         * Чтение входного файла.
+         */
+        PARSING,
+        /**
+         * Распределение полетов по специалистам.
+         */
+        GROUPING,
+        /**
+         * Расчет данных по месяцам для специалистов.
+         */
+        AGGREGATION
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.services;
+
+/**
+ * Получатель сведений о ходе обработки.
+ *
+ * <p>Вызывается {@link ProcessingMonitor} не чаще заданного интервала, а также при переходе
+ * к следующему этапу обработки. Может вызываться из разных потоков, но не одновременно.</p>
+ */
+@FunctionalInterface
+public interface ProgressListener {
+
+    /**
+     * Обрабатывает очередной снимок хода обработки.
+     *
+     * @param progress снимок хода обработки.
+     */
+    void onProgress(ProcessingProgress progress);
+}
@@ -0,0 +1,377 @@
+package com.example.services;
+
+import com.example.data.models.Flags;
+import com.example.data.models.Flight;
+import com.example.data.models.MonthlyData;
+import com.example.data.models.Specialist;
+import com.example.data.models.SpecialistHours;
+import com.example.utils.CalendarTable;
+import com.example.utils.DateUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Расчет данных по месяцам для одного специалиста.
+ *
+ * <p>Класс не хранит состояния и используется как обработчиком данных в памяти
+ * ({@link JsonFileProcessorImpl}), так и внешней агрегацией ({@link ExternalAggregationProcessor}),
+ * поэтому результаты обоих способов обработки совпадают.</p>
+ *
+ * <p>Расчет выполняется в два этапа: часы всех полетов специалиста распределяются по дням и по месяцам
+ * в массивах, индексированных номером дня от эпохи и номером месяца таблицы календаря, затем по ним
+ * вычисляются данные по месяцам и флаги. Для промежуточных результатов частей входных данных часы
+ * переносятся в {@link SpecialistHours}; объединенные часы перед вторым этапом переносятся обратно в массивы.</p>
+ *
+ * <p>На втором этапе налет за месяц и максимальный налет за неделю передаются в
+ * {@link LimitProximityCollector} для отчета о близости к ограничениям.</p>
+ *
+ * <p>Недели и месяцы дней определяются по таблице календаря ({@link CalendarTable}), построенной по диапазону
+ * дат запуска, поэтому экземпляр создается на один запуск. Экземпляр не изменяется и может использоваться
+ * из нескольких потоков.</p>
+ */
+@Slf4j
+class SpecialistAggregator {
+    private final CalendarTable calendar;
+
+    /**
+     * Создает расчет для одного запуска.
+     *
+     * @param calendar таблица календаря, покрывающая даты всех полетов запуска.
+     */
+    SpecialistAggregator(CalendarTable calendar) {
+        this.calendar = calendar;
+    }
+
+    /**
+     * Создает копию специалиста вместе с его данными по месяцам.
+     *
+     * @param specialist исходный специалист.
+     * @return копия специалиста.
+     */
+    static Specialist copyOf(Specialist specialist) {
+        List<MonthlyData> monthlyData = new ArrayList<>();
+        if (specialist.getMonthlyData() != null) {
+            specialist.getMonthlyData().forEach(data -> {
+                Flags flags = data.getFlags();
+                monthlyData.add(new MonthlyData(data.getMonth(), data.getFlightTimeHours(),
+                        new Flags(flags.isOver80Hours(), flags.isWeeksOver36Hours(), flags.isDaysOver8Hours())));
+            });
+        }
+        return new Specialist(specialist.getId(), specialist.getName(), monthlyData);
+    }
+
+    /**
+     * Сортирует данные специалиста по месяцам.
+     *
+     * @param specialist специалист.
+     */
+    static void sortMonthlyData(Specialist specialist) {
+        List<MonthlyData> sortedMonthlyData = specialist.getMonthlyData().stream()
+                .sorted(Comparator.comparing(MonthlyData::getMonth))
+                .toList();
+        specialist.setMonthlyData(sortedMonthlyData);
+    }
+
+    /**
+     * Обновляет данные специалиста по месяцам на основе всех его полетов.
+     *
+     * @param specialist   специалист, для которого обновляются данные.
+     * @param flights      полеты специалиста.
+     * @param limitReports накопитель отчета о близости к ограничениям.
+     */
+    void aggregate(Specialist specialist, List<Flight> flights, LimitProximityCollector limitReports) {
+        log.trace("Обработка полетов для специалиста: {}", specialist);
+        updateMonthlyData(specialist, distribute(specialist.getId(), flights), limitReports);
+    }
+
+    /**
+     * Распределяет часы полетов специалиста по месяцам и по дням.
+     *
+     * <p>Полеты с временем взлета позже времени посадки не учитываются.</p>
+     *
+     * @param specialistId идентификатор специалиста.
+     * @param flights      полеты специалиста.
+     * @return часы полета специалиста по месяцам и по дням.
+     */
+    SpecialistHours accumulate(Long specialistId, List<Flight> flights) {
+        return distribute(specialistId, flights).toSpecialistHours(specialistId, calendar);
+    }
+
+    /**
+     * Обновляет данные специалиста по месяцам по часам, рассчитанным {@link #accumulate} и, возможно,
+     * объединенным по нескольким частям входных данных.
+     *
+     * @param specialist      специалист, для которого обновляются данные.
+     * @param specialistHours часы полета специалиста по месяцам и по дням.
+     * @param limitReports    накопитель отчета о близости к ограничениям.
+     */
+    void updateMonthlyData(Specialist specialist, SpecialistHours specialistHours,
+                           LimitProximityCollector limitReports) {
+        Map<String, Long> unknownMonths = new HashMap<>();
+        HoursByDay hours = HoursByDay.of(specialistHours, calendar, unknownMonths);
+        updateMonthlyData(specialist, hours, limitReports);
+        unknownMonths.forEach((monthKey, monthHours) -> {
+            MonthlyData data = getOrCreateMonthlyData(specialist, monthKey);
+            data.addFlightTime(monthHours);
+            data.updateFlags(0, 0);
+            limitReports.accept(specialist, monthKey, data.getFlightTimeHours(), 0);
+        });
+    }
+
+    /**
+     * Распределяет часы полетов специалиста по дням и по месяцам в массивах, покрывающих дни его полетов.
+     *
+     * @param specialistId идентификатор специалиста.
+     * @param flights      полеты специалиста.
+     * @return часы полета специалиста по дням и по месяцам.
+     */
+    private HoursByDay distribute(Long specialistId, List<Flight> flights) {
+        long firstDay = Long.MAX_VALUE;
+        long lastDay = Long.MIN_VALUE;
+        for (Flight flight : flights) {
+            if (!flight.getTakeoffTime().isAfter(flight.getLandingTime())) {
+                firstDay = Math.min(firstDay, flight.getTakeoffTime().toLocalDate().toEpochDay());
+                lastDay = Math.max(lastDay, flight.getLandingTime().toLocalDate().toEpochDay());
+            }
+        }
+        HoursByDay hours = firstDay > lastDay
+                ? HoursByDay.empty()
+                : new HoursByDay(firstDay, lastDay, calendar.monthOfEpochDay(firstDay),
+                calendar.monthOfEpochDay(lastDay));
+
+        for (Flight flight : flights) {
+            if (flight.getTakeoffTime().isAfter(flight.getLandingTime())) {
+                log.error("Данные не учтены, некорректные данные: время взлета {} после времени посадки {}. " +
+                                "Специалист с ID {}, Полет: {}",
+                        flight.getTakeoffTime(), flight.getLandingTime(), specialistId, flight);
+            } else {
+                log.trace("Обработка полета {} для специалиста с ID {}", flight, specialistId);
+                DateUtils.distributeHoursByEpochDay(flight.getTakeoffTime(), flight.getLandingTime(),
+                        flight.getFlightDurationHours(),
+                        (epochDay, hoursForDay) -> hours.addMonthly(calendar.monthOfEpochDay(epochDay), hoursForDay));
+
+                distributeFlightHours(flight.getTakeoffTime(), flight.getLandingTime(),
+                        flight.getFlightDurationHours(), hours);
+            }
+        }
+        return hours;
+    }
+
+    /**
+     * Возвращает или создает данные по месяцу для специалиста.
+     *
+     * @param specialist специалист, для которого необходимо создать данные по месяцу.
+     * @param month      месяц, для которого требуется данные.
+     * @return объект {@link MonthlyData} для указанного месяца.
+     */
+    private MonthlyData getOrCreateMonthlyData(Specialist specialist, String month) {
+        return specialist.getMonthlyData().stream()
+                .filter(data -> data.getMonth().equals(month))
+                .findFirst()
+                .orElseGet(() -> {
+                    MonthlyData newData = new MonthlyData(month, 0, new Flags());
+                    specialist.getMonthlyData().add(newData);
+                    log.trace("Созданы новые данные за месяц {} для специалиста {}", month, specialist);
+                    return newData;
+                });
+    }
+
+    /**
+     * Обновляет данные специалиста по месяцам: добавляет часы полета и вычисляет флаги
+     * на основе часов по дням и по неделям.
+     *
+     * <p>Неделя и месяц каждого дня определяются по таблице календаря, а часы по неделям и максимумы
+     * по месяцам накапливаются в массивах, покрывающих недели специалиста. Налет за неделю, пересекающую
+     * границу месяцев, учитывается при расчете максимального налета за неделю только в тех месяцах, в дни
+     * которых этой недели у специалиста есть часы полета: месяц не получает флаг и не попадает в отчет
+     * из-за часов, налетанных в другом месяце.</p>
+     *
+     * @param specialist   специалист, для которого обновляются данные.
+     * @param hours        часы полета специалиста по дням и по месяцам.
+     * @param limitReports накопитель отчета о близости к ограничениям.
+     */
+    private void updateMonthlyData(Specialist specialist, HoursByDay hours, LimitProximityCollector limitReports) {
+        log.debug("Обновление данных по месяцам для специалиста {}.", specialist);
+
+        long[] maxDailyHoursPerMonth = new long[hours.monthly.length];
+        long[] maxWeeklyHoursPerMonth = new long[hours.monthly.length];
+        if (hours.daily.length > 0) {
+            int firstWeek = calendar.weekOfEpochDay(hours.firstEpochDay);
+            int lastWeek = calendar.weekOfEpochDay(hours.firstEpochDay + hours.daily.length - 1);
+            long[] weeklyHours = new long[lastWeek - firstWeek + 1];
+            for (int day = 0; day < hours.daily.length; day++) {
+                if (hours.daily[day] > 0) {
+                    weeklyHours[calendar.weekOfEpochDay(hours.firstEpochDay + day) - firstWeek] += hours.daily[day];
+                }
+            }
+            for (int day = 0; day < hours.daily.length; day++) {
+                long dayHours = hours.daily[day];
+                if (dayHours > 0) {
+                    long epochDay = hours.firstEpochDay + day;
+                    int month = calendar.monthOfEpochDay(epochDay) - hours.firstMonth;
+                    long weekHours = weeklyHours[calendar.weekOfEpochDay(epochDay) - firstWeek];
+                    maxDailyHoursPerMonth[month] = Math.max(maxDailyHoursPerMonth[month], dayHours);
+                    maxWeeklyHoursPerMonth[month] = Math.max(maxWeeklyHoursPerMonth[month], weekHours);
+                }
+            }
+        }
+
+        for (int month = 0; month < hours.monthly.length; month++) {
+            if (hours.monthly[month] == HoursByDay.NONE) {
+                continue;
+            }
+            String monthKey = calendar.monthKey(hours.firstMonth + month);
+            MonthlyData data = getOrCreateMonthlyData(specialist, monthKey);
+            data.addFlightTime(hours.monthly[month]);
+            data.updateFlags(maxDailyHoursPerMonth[month], maxWeeklyHoursPerMonth[month]);
+            limitReports.accept(specialist, monthKey, data.getFlightTimeHours(), maxWeeklyHoursPerMonth[month]);
+            log.trace("Обновлены часы и флаги за месяц {} для специалиста {}", monthKey, specialist);
+        }
+    }
+
+    /**
+     * Распределяет часы полета по дням.
+     *
+     * @param takeoffTime   время взлета.
+     * @param landingTime   время посадки.
+     * @param totalDuration продолжительность полета в часах.
+     * @param hours         массивы для накопления часов по дням.
+     */
+    private static void distributeFlightHours(LocalDateTime takeoffTime, LocalDateTime landingTime,
+                                              long totalDuration, HoursByDay hours) {
+        long remainingDuration = totalDuration;
+
+        long startDay = takeoffTime.toLocalDate().toEpochDay();
+        long endDay = landingTime.toLocalDate().toEpochDay();
+
+        if (startDay == endDay) {
+            long hoursForDay = Math.min(remainingDuration, 24L);
+            hours.addDaily(startDay, hoursForDay);
+            remainingDuration -= hoursForDay;
+        } else {
+            long hoursForFirstDay = Math.min(24L - takeoffTime.getHour(), remainingDuration);
+            hours.addDaily(startDay, hoursForFirstDay);
+            remainingDuration -= hoursForFirstDay;
+
+            long hoursForLastDay = Math.min(landingTime.getHour(), remainingDuration);
+            hours.addDaily(endDay, hoursForLastDay);
+            remainingDuration -= hoursForLastDay;
+
+            for (long day = startDay + 1; day < endDay; day++) {
+                long hoursForDay = Math.min(24, remainingDuration);
+                hours.addDaily(day, hoursForDay);
+                remainingDuration -= hoursForDay;
+            }
+        }
+        while (remainingDuration > 0) {
+            long hoursForDay = Math.min(24, remainingDuration);
+            hours.addDaily(startDay, hoursForDay);
+            remainingDuration -= hoursForDay;
+            startDay++;
+        }
+    }
+
+    /**
+     * Часы полета одного специалиста в массивах: по дням, начиная с первого дня его полетов
+     * (индекс — номер дня от эпохи минус {@link #firstEpochDay}), и по месяцам, начиная с месяца этого дня
+     * (индекс — номер месяца таблицы календаря минус {@link #firstMonth}).
+     *
+     * <p>Значение {@link #NONE} означает, что за день или месяц нет ни одного полета. Оно отличается
+     * от нуля: месяц, в который попал полет без полных часов, выводится с нулевым налетом.</p>
+     */
+    private static final class HoursByDay {
+        private static final long NONE = -1;
+
+        private final long firstEpochDay;
+        private final long[] daily;
+        private final int firstMonth;
+        private final long[] monthly;
+
+        private HoursByDay(long firstEpochDay, long lastEpochDay, int firstMonth, int lastMonth) {
+            this.firstEpochDay = firstEpochDay;
+            this.daily = new long[Math.toIntExact(lastEpochDay - firstEpochDay + 1)];
+            this.firstMonth = firstMonth;
+            this.monthly = new long[lastMonth - firstMonth + 1];
+            Arrays.fill(daily, NONE);
+            Arrays.fill(monthly, NONE);
+        }
+
+        private static HoursByDay empty() {
+            return new HoursByDay(0, -1, 0, -1);
+        }
+
+        /**
+         * Переносит часы из карт {@link SpecialistHours} в массивы. Месяцы, отсутствующие в таблице
+         * календаря, возвращаются в отдельной карте.
+         */
+        private static HoursByDay of(SpecialistHours specialistHours, CalendarTable calendar,
+                                     Map<String, Long> unknownMonths) {
+            long firstDay = Long.MAX_VALUE;
+            long lastDay = Long.MIN_VALUE;
+            for (LocalDate date : specialistHours.getDailyHours().keySet()) {
+                firstDay = Math.min(firstDay, date.toEpochDay());
+                lastDay = Math.max(lastDay, date.toEpochDay());
+            }
+            int firstMonth = firstDay > lastDay ? Integer.MAX_VALUE : calendar.monthOfEpochDay(firstDay);
+            int lastMonth = firstDay > lastDay ? Integer.MIN_VALUE : calendar.monthOfEpochDay(lastDay);
+            for (String monthKey : specialistHours.getMonthlyHours().keySet()) {
+                int month = calendar.monthOf(monthKey);
+                if (month != CalendarTable.NOT_FOUND) {
+                    firstMonth = Math.min(firstMonth, month);
+                    lastMonth = Math.max(lastMonth, month);
+                }
+            }
+
+            HoursByDay hours = firstMonth > lastMonth
+                    ? empty()
+                    : new HoursByDay(firstDay > lastDay ? 0 : firstDay, firstDay > lastDay ? -1 : lastDay,
+                    firstMonth, lastMonth);
+            specialistHours.getDailyHours().forEach((date, dayHours) -> hours.addDaily(date.toEpochDay(), dayHours));
+            specialistHours.getMonthlyHours().forEach((monthKey, monthHours) -> {
+                int month = calendar.monthOf(monthKey);
+                if (month == CalendarTable.NOT_FOUND) {
+                    unknownMonths.merge(monthKey, monthHours, Long::sum);
+                } else {
+                    hours.addMonthly(month, monthHours);
+                }
+            });
+            return hours;
+        }
+
+        private void addDaily(long epochDay, long hours) {
+            int day = (int) (epochDay - firstEpochDay);
+            daily[day] = daily[day] == NONE ? hours : daily[day] + hours;
+        }
+
+        private void addMonthly(int month, long hours) {
+            int index = month - firstMonth;
+            monthly[index] = monthly[index] == NONE ? hours : monthly[index] + hours;
+        }
+
+        /**
+         * Переносит часы в карты {@link SpecialistHours} для сохранения промежуточных результатов.
+         */
+        private SpecialistHours toSpecialistHours(Long specialistId, CalendarTable calendar) {
+            SpecialistHours specialistHours = new SpecialistHours(specialistId, new HashMap<>(), new HashMap<>());
+            for (int month = 0; month < monthly.length; month++) {
+                if (monthly[month] != NONE) {
+                    specialistHours.getMonthlyHours().put(calendar.monthKey(firstMonth + month), monthly[month]);
+                }
+            }
+            for (int day = 0; day < daily.length; day++) {
+                if (daily[day] != NONE) {
+                    specialistHours.getDailyHours().put(LocalDate.ofEpochDay(firstEpochDay + day), daily[day]);
+                }
+            }
+            return specialistHours;
+        }
+    }
+}
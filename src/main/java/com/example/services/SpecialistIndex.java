@@ -0,0 +1,188 @@
+package com.example.services;
+
+import java.util.Arrays;
+
+/**
+ * Отображение идентификаторов специалистов в плотные целочисленные индексы <code>0..size()-1</code>.
+ *
+ * <p>Индексы присваиваются в порядке первого появления идентификатора, поэтому специалисты из входных
+ * данных получают индексы в исходном порядке, а специалисты, встретившиеся только в экипажах, — следующие.
+ * Это позволяет хранить все данные по специалистам в массивах, индексированных плотным индексом.</p>
+ *
+ * <p>Если идентификаторы специалистов из входных данных расположены плотно, индекс ищется в массиве,
+ * адресуемом разностью идентификатора и минимального идентификатора. Остальные идентификаторы хранятся
+ * в хеш-таблице с открытой адресацией на массивах примитивов. Класс не потокобезопасен при добавлении.</p>
+ */
+final class SpecialistIndex {
+    static final int NOT_FOUND = -1;
+
+    /**
+     * Максимальный размер массива прямой адресации относительно количества идентификаторов.
+     */
+    private static final int MAX_DIRECT_TABLE_RATIO = 4;
+    private static final int MIN_DIRECT_TABLE_SIZE = 1024;
+    private static final int MIN_HASH_CAPACITY = 16;
+
+    private final long directBase;
+    private final int[] directTable;
+
+    private long[] hashKeys;
+    private int[] hashValues;
+    private int hashSize;
+
+    private long[] ids;
+    private int size;
+
+    /**
+     * Создает индекс и присваивает индексы идентификаторам специалистов в заданном порядке.
+     *
+     * @param specialistIds идентификаторы специалистов из входных данных.
+     */
+    SpecialistIndex(long[] specialistIds) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (long id : specialistIds) {
+            min = Math.min(min, id);
+            max = Math.max(max, id);
+        }
+        long range = specialistIds.length == 0 ? 0 : max - min + 1;
+        long directLimit = Math.max(MIN_DIRECT_TABLE_SIZE, (long) specialistIds.length * MAX_DIRECT_TABLE_RATIO);
+        if (range > 0 && range <= directLimit) {
+            directBase = min;
+            directTable = new int[(int) range];
+            Arrays.fill(directTable, NOT_FOUND);
+        } else {
+            directBase = 0;
+            directTable = new int[0];
+        }
+        int hashCapacity = directTable.length == 0
+                ? Math.max(MIN_HASH_CAPACITY, Integer.highestOneBit(Math.max(1, specialistIds.length)) * 4)
+                : MIN_HASH_CAPACITY;
+        hashKeys = new long[hashCapacity];
+        hashValues = new int[hashCapacity];
+        Arrays.fill(hashValues, NOT_FOUND);
+        ids = new long[Math.max(MIN_HASH_CAPACITY, specialistIds.length)];
+        for (long id : specialistIds) {
+            getOrAdd(id);
+        }
+    }
+
+    /**
+     * Возвращает индекс специалиста.
+     *
+     * @param id идентификатор специалиста.
+     * @return индекс специалиста или {@link #NOT_FOUND}, если идентификатор не встречался.
+     */
+    int indexOf(long id) {
+        int slot = directSlot(id);
+        if (slot != NOT_FOUND) {
+            return directTable[slot];
+        }
+        int mask = hashKeys.length - 1;
+        for (int i = mix(id) & mask; ; i = (i + 1) & mask) {
+            int value = hashValues[i];
+            if (value == NOT_FOUND || hashKeys[i] == id) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Возвращает индекс специалиста, присваивая новый индекс при первом появлении идентификатора.
+     *
+     * @param id идентификатор специалиста.
+     * @return индекс специалиста.
+     */
+    int getOrAdd(long id) {
+        int slot = directSlot(id);
+        if (slot != NOT_FOUND) {
+            int index = directTable[slot];
+            if (index == NOT_FOUND) {
+                index = append(id);
+                directTable[slot] = index;
+            }
+            return index;
+        }
+        int mask = hashKeys.length - 1;
+        for (int i = mix(id) & mask; ; i = (i + 1) & mask) {
+            int value = hashValues[i];
+            if (value == NOT_FOUND) {
+                int index = append(id);
+                hashKeys[i] = id;
+                hashValues[i] = index;
+                if (++hashSize * 2 > hashKeys.length) {
+                    rehash();
+                }
+                return index;
+            }
+            if (hashKeys[i] == id) {
+                return value;
+            }
+        }
+    }
+
+    /**
+     * Возвращает идентификатор специалиста по индексу.
+     *
+     * @param index индекс специалиста.
+     * @return идентификатор специалиста.
+     */
+    long idOf(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Возвращает количество присвоенных индексов.
+     *
+     * @return количество специалистов в индексе.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Возвращает позицию идентификатора в массиве прямой адресации.
+     *
+     * @param id идентификатор специалиста.
+     * @return позиция в массиве или {@link #NOT_FOUND}, если идентификатор вне диапазона массива.
+     */
+    private int directSlot(long id) {
+        if (id < directBase) {
+            return NOT_FOUND;
+        }
+        long slot = id - directBase;
+        return slot >= 0 && slot < directTable.length ? (int) slot : NOT_FOUND;
+    }
+
+    private int append(long id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        ids[size] = id;
+        return size++;
+    }
+
+    private void rehash() {
+        long[] oldKeys = hashKeys;
+        int[] oldValues = hashValues;
+        hashKeys = new long[oldKeys.length * 2];
+        hashValues = new int[oldValues.length * 2];
+        Arrays.fill(hashValues, NOT_FOUND);
+        int mask = hashKeys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != NOT_FOUND) {
+                int i = mix(oldKeys[j]) & mask;
+                while (hashValues[i] != NOT_FOUND) {
+                    i = (i + 1) & mask;
+                }
+                hashKeys[i] = oldKeys[j];
+                hashValues[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,380 @@
+package com.example.services;
+
+import com.example.data.models.AircraftUtilization;
+import com.example.data.models.AirportMovements;
+import com.example.data.models.Flight;
+import com.example.data.models.OutputData;
+import com.example.utils.CalendarTable;
+import com.example.utils.DateUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Накопитель сводок по налету воздушных судов и движениям в аэропортах.
+ *
+ * <p>Полеты передаются в накопитель в том же проходе, в котором они группируются по специалистам.
+ * Воздушные суда и аэропорты кодируются плотными целочисленными идентификаторами, а счетчики
+ * хранятся в массивах примитивов, индексированных идентификатором и номером месяца. Идентификатор
+ * воздушного судна ищется по типу, а затем по номеру в таблице примитивов этого типа, поэтому
+ * кодирование не создает объектов для уже известных судов.</p>
+ *
+ * <p>Часы полета распределяются по дням так же, как часы специалистов
+ * (см. {@link DateUtils#distributeHoursByEpochDay}), а месяц дня определяется по {@link CalendarTable},
+ * поэтому распределение не создает объектов даты. Даты полетов заранее неизвестны, поэтому таблица
+ * строится по первому полету с запасом {@link #CALENDAR_MARGIN_DAYS} дней в обе стороны и перестраивается
+ * с тем же запасом, когда день полета выходит за ее пределы. Полеты с некорректным временем не учитываются.</p>
+ */
+@Slf4j
+class UtilizationAccumulator {
+    /**
+     * Запас таблицы календаря в днях до и после дней, для которых она перестраивается.
+     */
+    static final int CALENDAR_MARGIN_DAYS = 366;
+
+    private final Map<String, AircraftNumbers> aircraftIds = new HashMap<>();
+    private final List<String> aircraftTypes = new ArrayList<>();
+    private final List<Integer> aircraftNumbers = new ArrayList<>();
+    private final Map<String, Integer> airportIds = new HashMap<>();
+    private final List<String> airportCodes = new ArrayList<>();
+
+    private final MonthlyCounters airframeHours = new MonthlyCounters();
+    private final MonthlyCounters airframeFlights = new MonthlyCounters();
+    private final MonthlyCounters departures = new MonthlyCounters();
+    private final MonthlyCounters arrivals = new MonthlyCounters();
+
+    private int minMonth = Integer.MAX_VALUE;
+    private int maxMonth = Integer.MIN_VALUE;
+
+    private final CalendarTable.Builder calendarRange = CalendarTable.builder();
+    private CalendarTable calendar;
+    private long calendarFirstDay = Long.MAX_VALUE;
+    private long calendarLastDay = Long.MIN_VALUE;
+    private int calendarFirstMonth;
+
+    /**
+     * Учитывает полет в сводках.
+     *
+     * @param flight полет.
+     */
+    void accept(Flight flight) {
+        LocalDateTime takeoffTime = flight.getTakeoffTime();
+        LocalDateTime landingTime = flight.getLandingTime();
+        if (takeoffTime == null || landingTime == null || takeoffTime.isAfter(landingTime)) {
+            log.trace("Полет {} не учтен в сводках по воздушным судам и аэропортам.", flight);
+            return;
+        }
+        int takeoffMonth = monthOrdinal(takeoffTime.toLocalDate().toEpochDay());
+        int landingMonth = monthOrdinal(landingTime.toLocalDate().toEpochDay());
+
+        if (flight.getAircraftType() != null || flight.getAircraftNumber() != null) {
+            int aircraftId = encodeAircraft(flight.getAircraftType(), flight.getAircraftNumber());
+            airframeFlights.add(aircraftId, takeoffMonth, 1);
+            DateUtils.distributeHoursByEpochDay(takeoffTime, landingTime, flight.getFlightDurationHours(),
+                    (epochDay, hours) -> airframeHours.add(aircraftId, monthOrdinal(epochDay), hours));
+        }
+        if (flight.getDepartureAirport() != null) {
+            departures.add(encodeAirport(flight.getDepartureAirport()), takeoffMonth, 1);
+        }
+        if (flight.getArrivalAirport() != null) {
+            arrivals.add(encodeAirport(flight.getArrivalAirport()), landingMonth, 1);
+        }
+    }
+
+    /**
+     * Добавляет к накопленным сводкам ранее рассчитанные сводки (например, сводки другого шарда).
+     *
+     * @param aircraftUtilization налет воздушных судов по месяцам.
+     * @param airportMovements    движения в аэропортах по месяцам.
+     */
+    void merge(List<AircraftUtilization> aircraftUtilization, List<AirportMovements> airportMovements) {
+        for (AircraftUtilization utilization : aircraftUtilization) {
+            int aircraftId = encodeAircraft(utilization.getAircraftType(), utilization.getAircraftNumber());
+            int month = monthOrdinal(YearMonth.parse(utilization.getMonth()));
+            airframeHours.add(aircraftId, month, utilization.getFlightTimeHours());
+            airframeFlights.add(aircraftId, month, utilization.getFlights());
+        }
+        for (AirportMovements movements : airportMovements) {
+            int airportId = encodeAirport(movements.getAirport());
+            int month = monthOrdinal(YearMonth.parse(movements.getMonth()));
+            departures.add(airportId, month, movements.getDepartures());
+            arrivals.add(airportId, month, movements.getArrivals());
+        }
+    }
+
+    /**
+     * Добавляет накопленные сводки в выходные данные.
+     *
+     * <p>Сводки упорядочены по воздушному судну (аэропорту) и месяцу. Месяцы без движений не выводятся.</p>
+     *
+     * @param outputData выходные данные.
+     */
+    void writeTo(OutputData outputData) {
+        writeTo(outputData.getAircraftUtilization(), outputData.getAirportMovements());
+    }
+
+    /**
+     * Добавляет накопленные сводки в указанные списки.
+     *
+     * @param aircraftUtilization список для налета воздушных судов по месяцам.
+     * @param airportMovements    список для движений в аэропортах по месяцам.
+     */
+    void writeTo(List<AircraftUtilization> aircraftUtilization, List<AirportMovements> airportMovements) {
+        List<Integer> aircraftOrder = sortedIds(aircraftTypes.size(), Comparator
+                .comparing((Integer id) -> aircraftTypes.get(id), Comparator.nullsFirst(Comparator.naturalOrder()))
+                .thenComparing(id -> aircraftNumbers.get(id), Comparator.nullsFirst(Comparator.naturalOrder())));
+        for (int aircraftId : aircraftOrder) {
+            for (int month = minMonth; month <= maxMonth; month++) {
+                long hours = airframeHours.get(aircraftId, month);
+                long flights = airframeFlights.get(aircraftId, month);
+                if (hours != 0 || flights != 0) {
+                    aircraftUtilization.add(new AircraftUtilization(aircraftTypes.get(aircraftId),
+                            aircraftNumbers.get(aircraftId), formatMonth(month), hours, flights));
+                }
+            }
+        }
+
+        List<Integer> airportOrder = sortedIds(airportCodes.size(), Comparator.comparing(airportCodes::get));
+        for (int airportId : airportOrder) {
+            for (int month = minMonth; month <= maxMonth; month++) {
+                long departed = departures.get(airportId, month);
+                long arrived = arrivals.get(airportId, month);
+                if (departed != 0 || arrived != 0) {
+                    airportMovements.add(new AirportMovements(airportCodes.get(airportId),
+                            formatMonth(month), departed, arrived));
+                }
+            }
+        }
+        log.debug("Сводки сформированы: {} воздушных судов, {} аэропортов.", aircraftTypes.size(), airportCodes.size());
+    }
+
+    /**
+     * Возвращает идентификатор воздушного судна, присваивая новый при первом появлении.
+     *
+     * @param aircraftType   тип воздушного судна.
+     * @param aircraftNumber номер воздушного судна.
+     * @return плотный идентификатор воздушного судна.
+     */
+    private int encodeAircraft(String aircraftType, Integer aircraftNumber) {
+        AircraftNumbers numbers = aircraftIds.get(aircraftType);
+        if (numbers == null) {
+            numbers = new AircraftNumbers();
+            aircraftIds.put(aircraftType, numbers);
+        }
+        int id = numbers.get(aircraftNumber);
+        if (id == AircraftNumbers.NOT_FOUND) {
+            id = aircraftTypes.size();
+            numbers.put(aircraftNumber, id);
+            aircraftTypes.add(aircraftType);
+            aircraftNumbers.add(aircraftNumber);
+        }
+        return id;
+    }
+
+    /**
+     * Возвращает идентификатор аэропорта, присваивая новый при первом появлении.
+     *
+     * @param airport код аэропорта.
+     * @return плотный идентификатор аэропорта.
+     */
+    private int encodeAirport(String airport) {
+        Integer id = airportIds.get(airport);
+        if (id == null) {
+            id = airportCodes.size();
+            airportIds.put(airport, id);
+            airportCodes.add(airport);
+        }
+        return id;
+    }
+
+    /**
+     * Вычисляет порядковый номер месяца дня (<code>год * 12 + месяц - 1</code>) по таблице календаря
+     * и расширяет диапазон месяцев сводки.
+     *
+     * @param epochDay номер дня от эпохи ({@link LocalDate#toEpochDay()}).
+     * @return порядковый номер месяца.
+     */
+    private int monthOrdinal(long epochDay) {
+        if (epochDay < calendarFirstDay || epochDay > calendarLastDay) {
+            extendCalendar(epochDay);
+        }
+        return trackMonth(calendarFirstMonth + calendar.monthOfEpochDay(epochDay));
+    }
+
+    private int monthOrdinal(YearMonth yearMonth) {
+        return trackMonth(monthOrdinalOf(yearMonth.getYear(), yearMonth.getMonthValue()));
+    }
+
+    private int trackMonth(int month) {
+        minMonth = Math.min(minMonth, month);
+        maxMonth = Math.max(maxMonth, month);
+        return month;
+    }
+
+    /**
+     * Перестраивает таблицу календаря так, чтобы она покрывала заданный день с запасом
+     * {@link #CALENDAR_MARGIN_DAYS} дней в обе стороны.
+     *
+     * @param epochDay номер дня от эпохи, не покрытый текущей таблицей.
+     */
+    private void extendCalendar(long epochDay) {
+        calendarFirstDay = Math.min(calendarFirstDay, epochDay - CALENDAR_MARGIN_DAYS);
+        calendarLastDay = Math.max(calendarLastDay, epochDay + CALENDAR_MARGIN_DAYS);
+        LocalDate firstDate = LocalDate.ofEpochDay(calendarFirstDay);
+        calendar = calendarRange
+                .include(firstDate)
+                .include(LocalDate.ofEpochDay(calendarLastDay))
+                .build();
+        calendarFirstMonth = monthOrdinalOf(firstDate.getYear(), firstDate.getMonthValue())
+                - calendar.monthOfEpochDay(calendarFirstDay);
+    }
+
+    private static int monthOrdinalOf(int year, int monthValue) {
+        return year * 12 + monthValue - 1;
+    }
+
+    private static String formatMonth(int monthOrdinal) {
+        return String.format("%04d-%02d", Math.floorDiv(monthOrdinal, 12), Math.floorMod(monthOrdinal, 12) + 1);
+    }
+
+    private static List<Integer> sortedIds(int size, Comparator<Integer> comparator) {
+        List<Integer> ids = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            ids.add(id);
+        }
+        ids.sort(comparator);
+        return ids;
+    }
+
+    /**
+     * Идентификаторы воздушных судов одного типа по номеру: открытая адресация по массивам примитивов,
+     * отдельное значение для отсутствующего номера.
+     */
+    private static final class AircraftNumbers {
+        static final int NOT_FOUND = -1;
+
+        private int[] numbers = new int[8];
+        private int[] ids = new int[8];
+        private int size;
+        private int nullNumberId = NOT_FOUND;
+
+        AircraftNumbers() {
+            Arrays.fill(ids, NOT_FOUND);
+        }
+
+        int get(Integer number) {
+            if (number == null) {
+                return nullNumberId;
+            }
+            int mask = ids.length - 1;
+            for (int slot = slotOf(number, mask); ids[slot] != NOT_FOUND; slot = (slot + 1) & mask) {
+                if (numbers[slot] == number) {
+                    return ids[slot];
+                }
+            }
+            return NOT_FOUND;
+        }
+
+        void put(Integer number, int id) {
+            if (number == null) {
+                nullNumberId = id;
+                return;
+            }
+            if ((size + 1) * 2 > ids.length) {
+                grow();
+            }
+            insert(number, id);
+            size++;
+        }
+
+        private void insert(int number, int id) {
+            int mask = ids.length - 1;
+            int slot = slotOf(number, mask);
+            while (ids[slot] != NOT_FOUND) {
+                slot = (slot + 1) & mask;
+            }
+            numbers[slot] = number;
+            ids[slot] = id;
+        }
+
+        private void grow() {
+            int[] oldNumbers = numbers;
+            int[] oldIds = ids;
+            numbers = new int[oldIds.length * 2];
+            ids = new int[oldIds.length * 2];
+            Arrays.fill(ids, NOT_FOUND);
+            for (int slot = 0; slot < oldIds.length; slot++) {
+                if (oldIds[slot] != NOT_FOUND) {
+                    insert(oldNumbers[slot], oldIds[slot]);
+                }
+            }
+        }
+
+        private static int slotOf(int number, int mask) {
+            int hash = number * 0x9E3779B9;
+            return (hash ^ (hash >>> 16)) & mask;
+        }
+    }
+
+    /**
+     * Счетчики по парам "идентификатор - месяц".
+     *
+     * <p>Для каждого идентификатора хранится массив значений, начинающийся с месяца <code>baseMonth</code>.
+     * При появлении более раннего месяца все массивы сдвигаются.</p>
+     */
+    private static final class MonthlyCounters {
+        private long[][] values = new long[16][];
+        private int baseMonth = Integer.MAX_VALUE;
+
+        void add(int id, int month, long delta) {
+            if (id >= values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, id + 1));
+            }
+            if (month < baseMonth) {
+                rebase(month);
+            }
+            int slot = month - baseMonth;
+            long[] row = values[id];
+            if (row == null) {
+                row = new long[Math.max(12, slot + 1)];
+                values[id] = row;
+            } else if (slot >= row.length) {
+                row = Arrays.copyOf(row, Math.max(row.length * 2, slot + 1));
+                values[id] = row;
+            }
+            row[slot] += delta;
+        }
+
+        long get(int id, int month) {
+            if (id >= values.length || values[id] == null || month < baseMonth) {
+                return 0;
+            }
+            long[] row = values[id];
+            int slot = month - baseMonth;
+            return slot < row.length ? row[slot] : 0;
+        }
+
+        private void rebase(int month) {
+            if (baseMonth != Integer.MAX_VALUE) {
+                int shift = baseMonth - month;
+                for (int id = 0; id < values.length; id++) {
+                    long[] row = values[id];
+                    if (row != null) {
+                        long[] shifted = new long[row.length + shift];
+                        System.arraycopy(row, 0, shifted, shift, row.length);
+                        values[id] = shifted;
+                    }
+                }
+            }
+            baseMonth = month;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.utils;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Предварительно рассчитанная таблица календаря для диапазона дат.
+ *
+ * <p>Таблица начинается с понедельника недели, содержащей первую дату диапазона, и заканчивается
+ * воскресеньем недели, содержащей последнюю дату, поэтому каждая неделя диапазона полная. Для каждого дня
+ * хранится порядковый номер месяца, для каждого месяца — ключ в формате <code>yyyy-MM</code>. Номер
+ * ISO-недели вычисляется делением номера дня на семь. Таким образом, определение недели и месяца дня
+ * сводится к обращению к массиву и не создает объектов.</p>
+ *
+ * <p>Таблица не относит недели к месяцам: неделя, пересекающая границу месяцев, учитывается только
+ * в тех месяцах, в дни которых этой недели у специалиста есть часы полета. Это правило применяется при
+ * расчете по специалистам, а таблица только сопоставляет дням номера недель и месяцев.</p>
+ *
+ * <p>Таблица не изменяется после создания и может использоваться из нескольких потоков.</p>
+ */
+public final class CalendarTable {
+    public static final int NOT_FOUND = -1;
+
+    private static final int DAYS_IN_WEEK = 7;
+
+    private final long firstEpochDay;
+    private final int firstMonthOrdinal;
+    private final int[] monthOfDay;
+    private final String[] monthKeys;
+
+    private CalendarTable(LocalDate first, LocalDate last) {
+        LocalDate start = first.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        LocalDate end = last.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+        long days = end.toEpochDay() - start.toEpochDay() + 1;
+        if (days > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Слишком большой диапазон дат: " + first + " - " + last);
+        }
+        firstEpochDay = start.toEpochDay();
+        firstMonthOrdinal = monthOrdinal(start.getYear(), start.getMonthValue());
+
+        monthOfDay = new int[(int) days];
+        LocalDate date = start;
+        for (int day = 0; day < monthOfDay.length; day++) {
+            monthOfDay[day] = monthOrdinal(date.getYear(), date.getMonthValue()) - firstMonthOrdinal;
+            date = date.plusDays(1);
+        }
+
+        monthKeys = new String[monthOfDay[monthOfDay.length - 1] + 1];
+        for (int month = 0; month < monthKeys.length; month++) {
+            int ordinal = firstMonthOrdinal + month;
+            monthKeys[month] = Math.floorDiv(ordinal, 12) + "-"
+                    + String.format("%02d", Math.floorMod(ordinal, 12) + 1);
+        }
+    }
+
+    /**
+     * Создает построитель таблицы, собирающий диапазон дат из данных.
+     *
+     * @return построитель таблицы.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Возвращает номер ISO-недели дня от начала таблицы по номеру дня от эпохи ({@link LocalDate#toEpochDay()}).
+     *
+     * @param epochDay номер дня от эпохи из диапазона таблицы.
+     * @return номер недели.
+     * @throws IllegalArgumentException если день вне диапазона таблицы.
+     */
+    public int weekOfEpochDay(long epochDay) {
+        return dayOf(epochDay) / DAYS_IN_WEEK;
+    }
+
+    /**
+     * Возвращает номер месяца дня от начала таблицы по номеру дня от эпохи ({@link LocalDate#toEpochDay()}).
+     *
+     * @param epochDay номер дня от эпохи из диапазона таблицы.
+     * @return номер месяца.
+     * @throws IllegalArgumentException если день вне диапазона таблицы.
+     */
+    public int monthOfEpochDay(long epochDay) {
+        return monthOfDay[dayOf(epochDay)];
+    }
+
+    /**
+     * Возвращает номер месяца по ключу в формате <code>yyyy-MM</code>.
+     *
+     * @param monthKey ключ месяца.
+     * @return номер месяца или {@link #NOT_FOUND}, если ключ имеет другой формат или месяц вне таблицы.
+     */
+    public int monthOf(String monthKey) {
+        int separator = monthKey.length() - 3;
+        if (separator < 1 || monthKey.charAt(separator) != '-') {
+            return NOT_FOUND;
+        }
+        int year = digits(monthKey, 0, separator);
+        int month = digits(monthKey, separator + 1, monthKey.length());
+        if (year < 0 || month < 1 || month > 12) {
+            return NOT_FOUND;
+        }
+        long index = (long) year * 12 + month - 1 - firstMonthOrdinal;
+        return index >= 0 && index < monthKeys.length ? (int) index : NOT_FOUND;
+    }
+
+    /**
+     * Возвращает ключ месяца в формате <code>yyyy-MM</code> по номеру месяца.
+     *
+     * @param month номер месяца.
+     * @return ключ месяца.
+     */
+    public String monthKey(int month) {
+        return monthKeys[month];
+    }
+
+    private int dayOf(long epochDay) {
+        long day = epochDay - firstEpochDay;
+        if (day < 0 || day >= monthOfDay.length) {
+            throw new IllegalArgumentException("Дата " + LocalDate.ofEpochDay(epochDay) + " вне диапазона календаря.");
+        }
+        return (int) day;
+    }
+
+    private static int monthOrdinal(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    /**
+     * Разбирает неотрицательное десятичное число.
+     *
+     * @return значение числа или <code>-1</code>, если встретился символ, не являющийся цифрой.
+     */
+    private static int digits(String value, int from, int to) {
+        int result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result > (Integer.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Построитель таблицы: собирает наименьшую и наибольшую даты из данных.
+     * Экземпляр не потокобезопасен.
+     */
+    public static final class Builder {
+        private long minEpochDay = Long.MAX_VALUE;
+        private long maxEpochDay = Long.MIN_VALUE;
+
+        private Builder() {
+        }
+
+        /**
+         * Расширяет диапазон до заданной даты. Значение <code>null</code> пропускается.
+         *
+         * @param date дата.
+         * @return этот построитель.
+         */
+        public Builder include(LocalDate date) {
+            if (date != null) {
+                long epochDay = date.toEpochDay();
+                minEpochDay = Math.min(minEpochDay, epochDay);
+                maxEpochDay = Math.max(maxEpochDay, epochDay);
+            }
+            return this;
+        }
+
+        /**
+         * Расширяет диапазон до даты заданного момента времени. Значение <code>null</code> пропускается.
+         *
+         * @param dateTime дата и время.
+         * @return этот построитель.
+         */
+        public Builder include(LocalDateTime dateTime) {
+            return dateTime == null ? this : include(dateTime.toLocalDate());
+        }
+
+        /**
+         * Создает таблицу для собранного диапазона. Если не было ни одной даты, таблица покрывает
+         * одну неделю, начинающуюся с {@link LocalDate#EPOCH}.
+         *
+         * @return таблица календаря.
+         */
+        public CalendarTable build() {
+            if (minEpochDay > maxEpochDay) {
+                return new CalendarTable(LocalDate.EPOCH, LocalDate.EPOCH);
+            }
+            return new CalendarTable(LocalDate.ofEpochDay(minEpochDay), LocalDate.ofEpochDay(maxEpochDay));
+        }
+    }
+}
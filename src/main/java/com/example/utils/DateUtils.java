@@ -1,7 +1,9 @@
 package com.example.utils;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.function.ObjLongConsumer;
 
 /**
  * Утилитный класс для работы с датами и временем.
@@ -32,4 +34,61 @@ public class DateUtils {
 
         return Duration.between(takeoff, landing).toHours();
     }
+
+    /**
+     * Распределяет часы полета по календарным дням от даты взлета до даты посадки.
+     *
+     * <p>В день взлета учитываются часы до конца суток, в день посадки — часы с начала суток до посадки,
+     * в промежуточные дни — по 24 часа. Для каждого дня количество часов ограничено оставшейся
+     * продолжительностью полета.</p>
+     *
+     * @param takeoff       время взлета.
+     * @param landing       время посадки.
+     * @param totalDuration продолжительность полета в часах.
+     * @param consumer      получатель пар "день - часы".
+     */
+    public static void distributeHoursByDay(LocalDateTime takeoff, LocalDateTime landing, long totalDuration,
+                                            ObjLongConsumer<LocalDate> consumer) {
+        distributeHoursByEpochDay(takeoff, landing, totalDuration,
+                (epochDay, hoursForDay) -> consumer.accept(LocalDate.ofEpochDay(epochDay), hoursForDay));
+    }
+
+    /**
+     * Распределяет часы полета по календарным дням так же, как {@link #distributeHoursByDay}, но передает
+     * день как номер дня от эпохи ({@link LocalDate#toEpochDay()}) и не создает объект даты для каждого дня.
+     *
+     * @param takeoff       время взлета.
+     * @param landing       время посадки.
+     * @param totalDuration продолжительность полета в часах.
+     * @param consumer      получатель пар "номер дня - часы".
+     */
+    public static void distributeHoursByEpochDay(LocalDateTime takeoff, LocalDateTime landing, long totalDuration,
+                                                 EpochDayHoursConsumer consumer) {
+        long remainingDuration = totalDuration;
+
+        long takeoffDay = takeoff.toLocalDate().toEpochDay();
+        long landingDay = landing.toLocalDate().toEpochDay();
+        for (long day = takeoffDay; day <= landingDay; day++) {
+            long hoursForDay;
+
+            if (day == takeoffDay) {
+                hoursForDay = Math.min(24L - takeoff.getHour(), remainingDuration);
+            } else if (day == landingDay) {
+                hoursForDay = Math.min(landing.getHour(), remainingDuration);
+            } else {
+                hoursForDay = Math.min(24, remainingDuration);
+            }
+            remainingDuration -= hoursForDay;
+
+            consumer.accept(day, hoursForDay);
+        }
+    }
+
+    /**
+     * Получатель часов полета за день, заданный номером дня от эпохи.
+     */
+    @FunctionalInterface
+    public interface EpochDayHoursConsumer {
+        void accept(long epochDay, long hours);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.example.utils;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Утилитный класс для работы с файлами.
+ * <p>
+ * Данный класс является утилитным и не должен создавать экземпляры.
+ * </p>
+ */
+@Slf4j
+public class FileUtils {
+
+    /**
+     * Приватный конструктор, чтобы предотвратить создание экземпляров данного класса.
+     */
+    private FileUtils() {
+        throw new UnsupportedOperationException("Этот класс не предназначен для создания экземпляров");
+    }
+
+    /**
+     * Переименовывает временный файл в итоговый. Если файловая система не поддерживает атомарное
+     * переименование, выполняется обычная замена файла.
+     *
+     * @param source временный файл.
+     * @param target итоговый файл.
+     * @throws IOException если переименование не удалось.
+     */
+    public static void moveAtomically(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            log.warn("Атомарное переименование не поддерживается, файл {} будет заменен обычным способом.", target);
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Возвращает путь для временного файла в каталоге итогового файла.
+     *
+     * <p>Файл не создается, поэтому при записи он получает обычные права доступа,
+     * а не ограниченные права временных файлов {@link Files#createTempFile}.</p>
+     *
+     * @param target итоговый файл.
+     * @return путь временного файла с уникальным именем.
+     */
+    public static Path tempFileFor(Path target) {
+        return target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".tmp");
+    }
+
+    /**
+     * Записывает файл через временный файл в том же каталоге (см. {@link #tempFileFor}) с последующим
+     * переименованием (см. {@link #moveAtomically}). При ошибке записи временный файл удаляется,
+     * а прежнее содержимое итогового файла сохраняется.
+     *
+     * @param target итоговый файл.
+     * @param writer функция, записывающая содержимое во временный файл.
+     * @throws IOException если произошла ошибка при записи или переименовании.
+     */
+    public static void writeAtomically(Path target, TempFileWriter writer) throws IOException {
+        Path tempFile = tempFileFor(target);
+        try {
+            writer.write(tempFile);
+            moveAtomically(tempFile, target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+    }
+
+    /**
+     * Запись содержимого во временный файл.
+     */
+    @FunctionalInterface
+    public interface TempFileWriter {
+        void write(Path tempFile) throws IOException;
+    }
+}
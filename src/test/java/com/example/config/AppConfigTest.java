@@ -0,0 +1,42 @@
+package com.example.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppConfigTest {
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("outputShardCount");
+        System.clearProperty("outputMode");
+        System.clearProperty("cacheEnabled");
+        System.clearProperty("externalMemoryBudgetMb");
+        System.clearProperty("limitReportTopCount");
+    }
+
+    @Test
+    void testDefaultConfigurationIsValid() {
+        assertDoesNotThrow(AppConfig::validate);
+    }
+
+    @Test
+    void testAllInvalidValuesAreReported() {
+        System.setProperty("outputShardCount", "16x");
+        System.setProperty("outputMode", "shards");
+        System.setProperty("cacheEnabled", "yes");
+        System.setProperty("externalMemoryBudgetMb", "0");
+        System.setProperty("limitReportTopCount", "0");
+
+        IllegalStateException error = assertThrows(IllegalStateException.class, AppConfig::validate);
+
+        assertTrue(error.getMessage().contains("outputShardCount=16x"), error.getMessage());
+        assertTrue(error.getMessage().contains("outputMode=shards"), error.getMessage());
+        assertTrue(error.getMessage().contains("cacheEnabled=yes"), error.getMessage());
+        assertTrue(error.getMessage().contains("externalMemoryBudgetMb=0"), error.getMessage());
+        assertTrue(error.getMessage().contains("limitReportTopCount=0"), error.getMessage());
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.data;
+
+import com.example.data.models.OutputData;
+import com.example.data.models.Specialist;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class OutputCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testPutAndGet() throws IOException {
+        OutputCache cache = new OutputCache(objectMapper, directory, 10, 1024 * 1024);
+        OutputData outputData = outputData(1L);
+
+        cache.put("key", outputData);
+
+        assertEquals(Optional.of(outputData), cache.get("key", OutputData.class));
+        assertTrue(cache.get("missing", OutputData.class).isEmpty());
+    }
+
+    @Test
+    void testEntryGetsRegularFilePermissions() throws IOException {
+        assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+        OutputCache cache = new OutputCache(objectMapper, directory, 10, 1024 * 1024);
+        Path regularFile = Files.writeString(directory.resolve("regular.txt"), "");
+
+        cache.put("key", outputData(1L));
+
+        assertEquals(Files.getPosixFilePermissions(regularFile),
+                Files.getPosixFilePermissions(directory.resolve("key.json")));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.noneMatch(file -> file.toString().endsWith(".tmp")));
+        }
+    }
+
+    @Test
+    void testLeastRecentlyUsedEntryIsEvicted() throws IOException {
+        OutputCache cache = new OutputCache(objectMapper, directory, 2, 1024 * 1024);
+        cache.put("first", outputData(1L));
+        cache.put("second", outputData(2L));
+        Files.setLastModifiedTime(directory.resolve("first.json"), FileTime.fromMillis(1_000));
+        Files.setLastModifiedTime(directory.resolve("second.json"), FileTime.fromMillis(2_000));
+
+        assertTrue(cache.get("first", OutputData.class).isPresent());
+        cache.put("third", outputData(3L));
+
+        assertTrue(cache.get("first", OutputData.class).isPresent());
+        assertTrue(cache.get("second", OutputData.class).isEmpty());
+        assertTrue(cache.get("third", OutputData.class).isPresent());
+    }
+
+    @Test
+    void testSizeBoundIsApplied() throws IOException {
+        OutputCache cache = new OutputCache(objectMapper, directory, 100, 150);
+        cache.put("first", outputData(1L));
+        Files.setLastModifiedTime(directory.resolve("first.json"), FileTime.fromMillis(1_000));
+        cache.put("second", outputData(2L));
+
+        assertTrue(cache.get("first", OutputData.class).isEmpty());
+        assertTrue(cache.get("second", OutputData.class).isPresent());
+    }
+
+    @Test
+    void testCorruptedEntryIsDropped() throws IOException {
+        OutputCache cache = new OutputCache(objectMapper, directory, 10, 1024 * 1024);
+        Files.writeString(directory.resolve("broken.json"), "{\"specialists\": [");
+
+        assertTrue(cache.get("broken", OutputData.class).isEmpty());
+        assertTrue(Files.notExists(directory.resolve("broken.json")));
+    }
+
+    @Test
+    void testFingerprintChangesWithContent() throws IOException {
+        Path file = directory.resolve("input.json");
+        Files.writeString(file, "{\"flights\": []}");
+        String original = InputFingerprint.of(file);
+        FileTime modified = Files.getLastModifiedTime(file);
+
+        assertEquals(original, InputFingerprint.of(file));
+        Files.writeString(file, "{\"flights\": [1]}");
+        Files.setLastModifiedTime(file, modified);
+        assertNotEquals(original, InputFingerprint.of(file));
+    }
+
+    private static OutputData outputData(Long id) {
+        OutputData outputData = new OutputData();
+        outputData.getSpecialists().add(new Specialist(id, "Специалист " + id, new ArrayList<>()));
+        return outputData;
+    }
+}
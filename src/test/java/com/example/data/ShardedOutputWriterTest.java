@@ -0,0 +1,124 @@
+package com.example.data;
+
+import com.example.data.models.Flags;
+import com.example.data.models.MonthlyData;
+import com.example.data.models.OutputData;
+import com.example.data.models.ShardManifest;
+import com.example.data.models.ShardManifestEntry;
+import com.example.data.models.Specialist;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedOutputWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    private OutputData outputData;
+
+    @BeforeEach
+    void setUp() {
+        outputData = new OutputData();
+        for (long id = 1; id <= 10; id++) {
+            List<MonthlyData> monthlyData = new ArrayList<>();
+            monthlyData.add(new MonthlyData("2024-12", id * 10, new Flags(id * 10 > 80, false, true)));
+            outputData.getSpecialists().add(new Specialist(id, "Специалист " + id, monthlyData));
+        }
+    }
+
+    @Test
+    void testManifestOffsetsPointToSpecialists() throws IOException {
+        ShardManifest manifest = new ShardedOutputWriter(objectMapper, 3, 2).write(directory, outputData);
+
+        assertEquals(3, manifest.getShardCount());
+        assertEquals(10, manifest.getEntries().size());
+        for (ShardManifestEntry entry : manifest.getEntries()) {
+            byte[] file = Files.readAllBytes(directory.resolve(entry.getFile()));
+            byte[] bytes = Arrays.copyOfRange(file, (int) entry.getOffset(), (int) (entry.getOffset() + entry.getLength()));
+            Specialist specialist = objectMapper.readValue(bytes, Specialist.class);
+            assertEquals(entry.getId(), specialist.getId());
+            assertEquals(entry.getId() * 10, specialist.getMonthlyData().getFirst().getFlightTimeHours());
+        }
+
+        ShardManifest savedManifest = objectMapper.readValue(
+                directory.resolve(ShardedOutputWriter.MANIFEST_FILE_NAME).toFile(), ShardManifest.class);
+        assertEquals(manifest, savedManifest);
+    }
+
+    @Test
+    void testShardFilesAreValidJsonArrays() throws IOException {
+        new ShardedOutputWriter(objectMapper, 4, 4).write(directory, outputData);
+
+        int total = 0;
+        try (Stream<Path> files = Files.list(directory.resolve("generation-1"))) {
+            for (Path file : files.filter(path -> path.getFileName().toString().startsWith("shard-")).toList()) {
+                total += objectMapper.readValue(file.toFile(), Specialist[].class).length;
+            }
+        }
+        assertEquals(10, total);
+    }
+
+    @Test
+    void testFilePerSpecialistAndStaleShardsRemoved() throws IOException {
+        new ShardedOutputWriter(objectMapper, 4, 2).write(directory, outputData);
+        ShardManifest manifest = new ShardedOutputWriter(objectMapper, 0, 2).write(directory, outputData);
+
+        assertEquals(List.of("generation-2", ShardedOutputWriter.MANIFEST_FILE_NAME), listNames(directory));
+        List<String> names = listNames(directory.resolve("generation-2"));
+        assertEquals(11, names.size());
+        assertTrue(names.contains("specialist-7.json"));
+        assertTrue(names.contains(ShardedOutputWriter.UTILIZATION_FILE_NAME));
+        assertFalse(names.stream().anyMatch(name -> name.startsWith("shard-") || name.endsWith(".tmp")));
+        assertEquals("generation-2/" + ShardedOutputWriter.UTILIZATION_FILE_NAME, manifest.getUtilizationFile());
+    }
+
+    @Test
+    void testEachWritePublishesNewGenerationAndRemovesInterruptedOnes() throws IOException {
+        ShardManifest first = new ShardedOutputWriter(objectMapper, 2, 2).write(directory, outputData);
+        Path interrupted = Files.createDirectory(directory.resolve("generation-7"));
+        Files.writeString(interrupted.resolve("shard-0000.json"), "[");
+
+        outputData.getSpecialists().removeFirst();
+        ShardManifest second = new ShardedOutputWriter(objectMapper, 2, 2).write(directory, outputData);
+
+        assertTrue(first.getEntries().stream().allMatch(entry -> entry.getFile().startsWith("generation-1/")));
+        assertTrue(second.getEntries().stream().allMatch(entry -> entry.getFile().startsWith("generation-8/")));
+        assertEquals(9, second.getEntries().size());
+        assertEquals(List.of("generation-8", ShardedOutputWriter.MANIFEST_FILE_NAME), listNames(directory));
+    }
+
+    @Test
+    void testTempFilesOfInterruptedWriteRemoved() throws IOException {
+        Files.writeString(directory.resolve("shard-0001.json.0f8e.tmp"), "[");
+        Files.writeString(directory.resolve("specialist-3.json.1a2b.tmp"), "{");
+        Files.writeString(directory.resolve(ShardedOutputWriter.MANIFEST_FILE_NAME + ".3c4d.tmp"), "{");
+        Files.writeString(directory.resolve("notes.tmp"), "чужой файл");
+
+        new ShardedOutputWriter(objectMapper, 2, 2).write(directory, outputData);
+
+        assertEquals(List.of("notes.tmp"),
+                listNames(directory).stream().filter(name -> name.endsWith(".tmp")).toList());
+    }
+
+    private static List<String> listNames(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString()).sorted().toList();
+        }
+    }
+}
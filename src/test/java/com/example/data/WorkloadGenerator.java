@@ -0,0 +1,358 @@
+package com.example.data;
+
+import com.example.data.models.Flight;
+import com.example.data.models.InputData;
+import com.example.data.models.Specialist;
+import com.example.utils.FileUtils;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Генератор синтетических входных данных заданного объема.
+ *
+ * <p>Данные полностью определяются начальным значением генератора случайных чисел и параметрами, поэтому
+ * повторный запуск создает те же полеты в том же порядке — как в памяти ({@link #generate()}), так и в файле
+ * JSON ({@link #writeJson(Path)}) или в двоичном run-файле ({@link #writeRuns(Path)}).</p>
+ *
+ * <p>Полеты распределены по периоду из нескольких месяцев, начиная с {@link #DEFAULT_START} (по умолчанию
+ * период пересекает границу года). Как и во входном файле из примера, часть полетов длится несколько суток
+ * или начинается в последний день месяца. Специалисты выбираются неравномерно, поэтому одни летают
+ * значительно больше других; часть полетов продолжает смену предыдущего экипажа и пересекается с ней
+ * по времени. Доля некорректных записей задается параметром: это полеты с временем посадки раньше
+ * времени взлета, экипажи с неизвестными специалистами и специалисты без идентификатора.</p>
+ *
+ * <p>Запуск из командной строки:
+ * <code>WorkloadGenerator &lt;json|runs&gt; &lt;файл&gt; [рейсы] [специалисты] [seed] [месяцы] [доля ошибок]</code>.</p>
+ */
+@Slf4j
+public class WorkloadGenerator {
+    public static final LocalDateTime DEFAULT_START = LocalDateTime.of(2024, 10, 1, 0, 0);
+    public static final int DEFAULT_MONTHS = 6;
+    public static final double DEFAULT_INVALID_RATIO = 0.001;
+
+    private static final String[] AIRCRAFT_TYPES = {
+            "A320", "A321", "Boeing 737", "Boeing 767", "Sukhoi Superjet 100", "ATR 72"
+    };
+    private static final String[] AIRPORTS = {
+            "SVO", "DME", "VKO", "LED", "KUF", "VVO", "AER", "KZN", "OVB", "SVX",
+            "KJA", "IKT", "KHV", "ROV", "UFA", "MRV", "KRR", "CEK", "PEE", "GOJ"
+    };
+    private static final int FLIGHTS_PER_AIRCRAFT = 200;
+    private static final int MIN_CREW = 2;
+    private static final int MAX_CREW = 5;
+    private static final double OVERLAPPING_DUTY_RATIO = 0.02;
+    private static final double MONTH_END_RATIO = 0.03;
+    private static final double MULTI_DAY_RATIO = 0.03;
+    private static final double LONG_HAUL_RATIO = 0.12;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final long seed;
+    private final int flightCount;
+    private final int specialistCount;
+    private final int months;
+    private final double invalidRatio;
+    private final long periodMinutes;
+    private final int aircraftCount;
+
+    /**
+     * Создает генератор с периодом и долей некорректных записей по умолчанию.
+     *
+     * @param seed            начальное значение генератора случайных чисел.
+     * @param flightCount     количество полетов.
+     * @param specialistCount количество специалистов.
+     */
+    public WorkloadGenerator(long seed, int flightCount, int specialistCount) {
+        this(seed, flightCount, specialistCount, DEFAULT_MONTHS, DEFAULT_INVALID_RATIO);
+    }
+
+    /**
+     * Создает генератор.
+     *
+     * @param seed            начальное значение генератора случайных чисел.
+     * @param flightCount     количество полетов.
+     * @param specialistCount количество специалистов.
+     * @param months          длина периода в месяцах, начиная с {@link #DEFAULT_START}.
+     * @param invalidRatio    доля некорректных записей от <code>0</code> до <code>1</code>.
+     * @throws IllegalArgumentException если параметры заданы неверно.
+     */
+    public WorkloadGenerator(long seed, int flightCount, int specialistCount, int months, double invalidRatio) {
+        if (flightCount < 0) {
+            throw new IllegalArgumentException("Количество полетов не может быть отрицательным.");
+        }
+        if (specialistCount < MAX_CREW) {
+            throw new IllegalArgumentException("Количество специалистов должно быть не меньше " + MAX_CREW + ".");
+        }
+        if (months < 1) {
+            throw new IllegalArgumentException("Период должен составлять не меньше одного месяца.");
+        }
+        if (invalidRatio < 0 || invalidRatio > 1) {
+            throw new IllegalArgumentException("Доля некорректных записей должна быть в диапазоне от 0 до 1.");
+        }
+        this.seed = seed;
+        this.flightCount = flightCount;
+        this.specialistCount = specialistCount;
+        this.months = months;
+        this.invalidRatio = invalidRatio;
+        this.periodMinutes = ChronoUnit.MINUTES.between(DEFAULT_START, DEFAULT_START.plusMonths(months));
+        this.aircraftCount = Math.max(1, flightCount / FLIGHTS_PER_AIRCRAFT);
+    }
+
+    /**
+     * Создает входные данные в памяти.
+     *
+     * @return объект {@link InputData} с полетами и специалистами.
+     */
+    public InputData generate() {
+        List<Flight> flights = new ArrayList<>(flightCount);
+        try {
+            forEachFlight(flights::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new InputData(flights, generateSpecialists());
+    }
+
+    /**
+     * Записывает входные данные в файл JSON в формате входного файла приложения.
+     *
+     * <p>Полеты записываются по мере создания, поэтому объем памяти не зависит от количества полетов.
+     * Файл записывается через временный файл с последующим переименованием.</p>
+     *
+     * @param file путь к файлу.
+     * @throws IOException если произошла ошибка при записи.
+     */
+    public void writeJson(Path file) throws IOException {
+        FileUtils.writeAtomically(file, tempFile -> {
+            try (JsonGenerator generator = new JsonFactory().createGenerator(tempFile.toFile(), JsonEncoding.UTF8)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart("specialists");
+                for (Specialist specialist : generateSpecialists()) {
+                    generator.writeStartObject();
+                    if (specialist.getId() == null) {
+                        generator.writeNullField("id");
+                    } else {
+                        generator.writeNumberField("id", specialist.getId());
+                    }
+                    generator.writeStringField("name", specialist.getName());
+                    generator.writeEndObject();
+                }
+                generator.writeEndArray();
+                generator.writeArrayFieldStart("flights");
+                forEachFlight(flight -> writeFlight(generator, flight));
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        });
+    }
+
+    /**
+     * Записывает полеты в двоичный run-файл (см. {@link FlightRunWriter}): одна запись на каждого члена экипажа.
+     *
+     * @param file путь к файлу.
+     * @return количество записанных записей.
+     * @throws IOException если произошла ошибка при записи.
+     */
+    public long writeRuns(Path file) throws IOException {
+        long[] records = new long[1];
+        FileUtils.writeAtomically(file, tempFile -> {
+            try (FlightRunWriter writer = new FlightRunWriter(tempFile, WRITE_BUFFER_SIZE)) {
+                forEachFlight(flight -> {
+                    for (long specialistId : flight.getCrew()) {
+                        writer.write(specialistId, flight);
+                    }
+                });
+                records[0] = writer.getRecords();
+            }
+        });
+        return records[0];
+    }
+
+    /**
+     * Создает список специалистов с идентификаторами <code>1..specialistCount</code>
+     * и добавляет специалистов без идентификатора в соответствии с долей некорректных записей.
+     *
+     * @return список специалистов.
+     */
+    List<Specialist> generateSpecialists() {
+        int invalidCount = (int) (specialistCount * invalidRatio);
+        List<Specialist> specialists = new ArrayList<>(specialistCount + invalidCount);
+        for (long id = 1; id <= specialistCount; id++) {
+            specialists.add(new Specialist(id, "Специалист " + id, new ArrayList<>()));
+        }
+        for (int i = 0; i < invalidCount; i++) {
+            specialists.add(new Specialist(null, "Специалист без идентификатора " + (i + 1), new ArrayList<>()));
+        }
+        return specialists;
+    }
+
+    /**
+     * Создает полеты по порядку и передает их получателю.
+     *
+     * @param consumer получатель полетов.
+     * @throws IOException если получатель не смог обработать полет.
+     */
+    private void forEachFlight(FlightConsumer consumer) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        Flight previous = null;
+        for (int i = 0; i < flightCount; i++) {
+            Flight flight = nextFlight(random, previous);
+            consumer.accept(flight);
+            previous = flight;
+        }
+    }
+
+    private Flight nextFlight(SplittableRandom random, Flight previous) {
+        int aircraft = random.nextInt(aircraftCount);
+        LocalDateTime takeoff;
+        long[] crew;
+        String departure;
+        if (previous != null && previous.getCrew().length > 0 && random.nextDouble() < OVERLAPPING_DUTY_RATIO) {
+            takeoff = previous.getTakeoffTime().plusMinutes(30 + random.nextInt(120));
+            crew = previous.getCrew().clone();
+            departure = previous.getArrivalAirport();
+        } else {
+            takeoff = nextTakeoff(random);
+            crew = nextCrew(random);
+            departure = AIRPORTS[random.nextInt(AIRPORTS.length)];
+        }
+        LocalDateTime landing = takeoff.plusMinutes(nextDurationMinutes(random));
+        String arrival = AIRPORTS[random.nextInt(AIRPORTS.length)];
+        if (arrival.equals(departure)) {
+            arrival = AIRPORTS[(random.nextInt(AIRPORTS.length - 1) + 1 + indexOf(departure)) % AIRPORTS.length];
+        }
+
+        if (random.nextDouble() < invalidRatio) {
+            if (random.nextBoolean()) {
+                LocalDateTime swapped = takeoff;
+                takeoff = landing;
+                landing = swapped;
+            } else {
+                crew[random.nextInt(crew.length)] = specialistCount + 1L + random.nextInt(specialistCount);
+            }
+        }
+        return new Flight(AIRCRAFT_TYPES[aircraft % AIRCRAFT_TYPES.length], 100 + aircraft, takeoff, landing,
+                departure, arrival, crew);
+    }
+
+    private LocalDateTime nextTakeoff(SplittableRandom random) {
+        if (random.nextDouble() < MONTH_END_RATIO) {
+            LocalDateTime monthEnd = DEFAULT_START.plusMonths(random.nextInt(months) + 1).minusDays(1);
+            return monthEnd.withHour(18 + random.nextInt(6)).withMinute(random.nextInt(60));
+        }
+        return DEFAULT_START.plusMinutes(random.nextLong(periodMinutes));
+    }
+
+    private static int nextDurationMinutes(SplittableRandom random) {
+        double kind = random.nextDouble();
+        if (kind < MULTI_DAY_RATIO) {
+            return 24 * 60 + random.nextInt(48 * 60);
+        }
+        if (kind < MULTI_DAY_RATIO + LONG_HAUL_RATIO) {
+            return 6 * 60 + random.nextInt(8 * 60);
+        }
+        return 45 + random.nextInt(5 * 60 + 15);
+    }
+
+    /**
+     * Выбирает различных членов экипажа. Специалисты с меньшими идентификаторами выбираются чаще.
+     */
+    private long[] nextCrew(SplittableRandom random) {
+        long[] crew = new long[MIN_CREW + random.nextInt(MAX_CREW - MIN_CREW + 1)];
+        for (int i = 0; i < crew.length; i++) {
+            long id;
+            do {
+                id = 1 + (long) (specialistCount * Math.pow(random.nextDouble(), 1.5));
+            } while (contains(crew, i, id));
+            crew[i] = id;
+        }
+        return crew;
+    }
+
+    private static boolean contains(long[] values, int size, long value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOf(String airport) {
+        for (int i = 0; i < AIRPORTS.length; i++) {
+            if (AIRPORTS[i].equals(airport)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static void writeFlight(JsonGenerator generator, Flight flight) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("aircraft_type", flight.getAircraftType());
+        generator.writeNumberField("aircraft_number", flight.getAircraftNumber());
+        generator.writeStringField("takeoff_time", TIME_FORMAT.format(flight.getTakeoffTime()));
+        generator.writeStringField("landing_time", TIME_FORMAT.format(flight.getLandingTime()));
+        generator.writeStringField("departure_airport", flight.getDepartureAirport());
+        generator.writeStringField("arrival_airport", flight.getArrivalAirport());
+        generator.writeArrayFieldStart("crew");
+        for (long specialistId : flight.getCrew()) {
+            generator.writeNumber(specialistId);
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    /**
+     * Точка входа для создания файла с синтетическими входными данными.
+     *
+     * @param args формат (<code>json</code> или <code>runs</code>), путь к файлу, количество полетов,
+     *             количество специалистов, начальное значение, длина периода в месяцах, доля некорректных записей.
+     * @throws IOException если произошла ошибка при записи.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            log.error("Использование: WorkloadGenerator <json|runs> <файл> [рейсы] [специалисты] [seed] [месяцы] "
+                    + "[доля ошибок]");
+            return;
+        }
+        String format = args[0];
+        Path file = Path.of(args[1]);
+        int flights = args.length > 2 ? Integer.parseInt(args[2]) : 1_000_000;
+        int specialists = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        int months = args.length > 5 ? Integer.parseInt(args[5]) : DEFAULT_MONTHS;
+        double invalidRatio = args.length > 6 ? Double.parseDouble(args[6]) : DEFAULT_INVALID_RATIO;
+        WorkloadGenerator generator = new WorkloadGenerator(seed, flights, specialists, months, invalidRatio);
+
+        long start = System.nanoTime();
+        switch (format) {
+            case "json" -> generator.writeJson(file);
+            case "runs" -> log.info("Записано {} записей.", generator.writeRuns(file));
+            default -> throw new IllegalArgumentException("Неизвестный формат: " + format);
+        }
+        log.info("Создан файл {}: {} рейсов, {} специалистов, {} байт за {} мс.", file, flights, specialists,
+                Files.size(file), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Получатель полетов, который может выбросить {@link IOException}.
+     */
+    @FunctionalInterface
+    private interface FlightConsumer {
+        void accept(Flight flight) throws IOException;
+    }
+}
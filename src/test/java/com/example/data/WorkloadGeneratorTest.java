@@ -0,0 +1,88 @@
+package com.example.data;
+
+import com.example.data.json.FlightTimeTrackerModule;
+import com.example.data.models.Flight;
+import com.example.data.models.InputData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkloadGeneratorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSameSeedProducesSameData() {
+        InputData first = new WorkloadGenerator(7, 2_000, 100).generate();
+        InputData second = new WorkloadGenerator(7, 2_000, 100).generate();
+        InputData other = new WorkloadGenerator(8, 2_000, 100).generate();
+
+        assertEquals(first, second);
+        assertNotEquals(first.getFlights(), other.getFlights());
+    }
+
+    @Test
+    void testGeneratedDataResemblesRealRosters() {
+        InputData inputData = new WorkloadGenerator(42, 20_000, 500, 6, 0.01).generate();
+
+        assertEquals(20_000, inputData.getFlights().size());
+        assertEquals(505, inputData.getSpecialists().size());
+        assertEquals(5, inputData.getSpecialists().stream().filter(specialist -> specialist.getId() == null).count());
+        assertTrue(inputData.getFlights().stream()
+                .anyMatch(flight -> flight.getTakeoffTime().getYear() < flight.getLandingTime().getYear()));
+        assertTrue(inputData.getFlights().stream()
+                .anyMatch(flight -> flight.getTakeoffTime().getMonth() != flight.getLandingTime().getMonth()
+                        && flight.getTakeoffTime().isBefore(flight.getLandingTime())));
+        assertTrue(inputData.getFlights().stream().anyMatch(flight -> flight.getFlightDurationHours() >= 24));
+        assertTrue(inputData.getFlights().stream()
+                .anyMatch(flight -> flight.getTakeoffTime().isAfter(flight.getLandingTime())));
+        assertTrue(inputData.getFlights().stream()
+                .flatMapToLong(flight -> Arrays.stream(flight.getCrew()))
+                .anyMatch(id -> id > 500));
+    }
+
+    @Test
+    void testJsonFileMatchesGeneratedData() throws IOException {
+        WorkloadGenerator generator = new WorkloadGenerator(3, 1_000, 50, 3, 0.05);
+        Path file = directory.resolve("input.json");
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .registerModule(new FlightTimeTrackerModule());
+
+        generator.writeJson(file);
+
+        assertEquals(generator.generate(), new FileService(objectMapper).loadInputData(file.toString()));
+    }
+
+    @Test
+    void testRunFileContainsRecordPerCrewMember() throws IOException {
+        WorkloadGenerator generator = new WorkloadGenerator(3, 1_000, 50);
+        Path file = directory.resolve("flights.run");
+
+        long records = generator.writeRuns(file);
+
+        InputData inputData = generator.generate();
+        assertEquals(inputData.getFlights().stream().mapToLong(flight -> flight.getCrew().length).sum(), records);
+        try (FlightRunReader reader = new FlightRunReader(file, 4096)) {
+            for (Flight flight : inputData.getFlights()) {
+                for (long specialistId : flight.getCrew()) {
+                    assertTrue(reader.next());
+                    assertEquals(specialistId, reader.getSpecialistId());
+                    assertEquals(flight.getTakeoffTime(), reader.getFlight().getTakeoffTime());
+                    assertEquals(flight.getLandingTime(), reader.getFlight().getLandingTime());
+                }
+            }
+            assertFalse(reader.next());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.data.json;
+
+import com.example.data.models.Flight;
+import com.example.data.models.InputData;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FlightTimeTrackerModuleTest {
+
+    private final ObjectMapper defaultMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new FlightTimeTrackerModule());
+
+    @Test
+    void testSampleInputMatchesDefaultBinding() throws IOException {
+        File input = new File("resources/input.json");
+
+        assertEquals(defaultMapper.readValue(input, InputData.class), objectMapper.readValue(input, InputData.class));
+    }
+
+    @Test
+    void testTimestampFormatsMatchDefaultBinding() throws IOException {
+        for (String time : List.of("2024-03-01T10:15", "2024-03-01T10:15:30", "2024-03-01T10:15:30.5",
+                "2024-03-01T10:15:30.123456789", "2024-03-01T10:15:30Z", "+12024-03-01T10:15:30")) {
+            String json = flightJson("\"" + time + "\"", "[1, 2]");
+
+            assertEquals(defaultMapper.readValue(json, Flight.class), objectMapper.readValue(json, Flight.class), time);
+        }
+    }
+
+    @Test
+    void testInvalidTimestampIsRejected() {
+        String json = flightJson("\"2024-02-30T10:00:00\"", "[1]");
+
+        assertThrows(JsonMappingException.class, () -> defaultMapper.readValue(json, Flight.class));
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue(json, Flight.class));
+    }
+
+    @Test
+    void testCoercedAndNullValues() throws IOException {
+        String json = "{\"aircraft_type\": null, \"aircraft_number\": \"101\", \"takeoff_time\": null, "
+                + "\"crew\": [\"7\", 8]}";
+
+        Flight flight = objectMapper.readValue(json, Flight.class);
+
+        assertEquals(defaultMapper.readValue(json, Flight.class), flight);
+        assertNull(flight.getTakeoffTime());
+        assertArrayEquals(new long[]{7L, 8L}, flight.getCrew());
+    }
+
+    @Test
+    void testLargeCrewIsRead() throws IOException {
+        String json = flightJson("\"2024-03-01T10:15:00\"", "[1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12]");
+
+        assertEquals(12, objectMapper.readValue(json, Flight.class).getCrew().length);
+        assertEquals(LocalDateTime.of(2024, 3, 1, 10, 15), objectMapper.readValue(json, Flight.class).getTakeoffTime());
+    }
+
+    @Test
+    void testUnknownPropertyIsRejected() {
+        String json = "{\"aircraft_type\": \"A320\", \"pilot\": \"Smith\"}";
+
+        assertThrows(UnrecognizedPropertyException.class, () -> objectMapper.readValue(json, Flight.class));
+    }
+
+    private static String flightJson(String takeoffTime, String crew) {
+        return "{\"aircraft_type\": \"A320\", \"aircraft_number\": 101, \"takeoff_time\": " + takeoffTime
+                + ", \"landing_time\": \"2024-03-01T18:00:00\", \"departure_airport\": \"AMS\", "
+                + "\"arrival_airport\": \"FLL\", \"crew\": " + crew + "}";
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.data.json;
+
+import com.example.data.models.InputData;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение скорости чтения входных данных стандартной привязкой Jackson
+ * и десериализаторами {@link FlightTimeTrackerModule}.
+ *
+ * <p>Не запускается при обычной сборке. Запуск: <code>mvn test -Pbenchmark</code>.</p>
+ */
+@Slf4j
+@Tag("benchmark")
+class JsonBindingBenchmarkTest {
+    private static final int FLIGHTS = 200_000;
+    private static final int SPECIALISTS = 2_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    @Test
+    void benchmarkInputDataBinding() throws IOException {
+        byte[] input = generateInput(new Random(42));
+        ObjectReader defaultReader = new ObjectMapper().registerModule(new JavaTimeModule())
+                .readerFor(InputData.class);
+        ObjectReader moduleReader = new ObjectMapper().registerModule(new JavaTimeModule())
+                .registerModule(new FlightTimeTrackerModule())
+                .readerFor(InputData.class);
+
+        assertEquals(defaultReader.<InputData>readValue(input), moduleReader.<InputData>readValue(input));
+
+        long defaultNanos = measure(defaultReader, input);
+        long moduleNanos = measure(moduleReader, input);
+        log.info("Входные данные: {} КБ, {} рейсов.", input.length / 1024, FLIGHTS);
+        log.info("Стандартная привязка: {} мс, модуль: {} мс, ускорение: {}",
+                defaultNanos / 1_000_000, moduleNanos / 1_000_000,
+                String.format("%.2f", (double) defaultNanos / moduleNanos));
+    }
+
+    /**
+     * Возвращает медианное время чтения входных данных.
+     */
+    private static long measure(ObjectReader reader, byte[] input) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            reader.readValue(input);
+        }
+        long[] times = new long[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            reader.readValue(input);
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[MEASURED_ITERATIONS / 2];
+    }
+
+    private static byte[] generateInput(Random random) {
+        StringBuilder json = new StringBuilder("{\"specialists\": [");
+        for (int id = 1; id <= SPECIALISTS; id++) {
+            json.append(id > 1 ? "," : "").append("{\"id\": ").append(id).append(", \"name\": \"Специалист ")
+                    .append(id).append("\"}");
+        }
+        json.append("], \"flights\": [");
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < FLIGHTS; i++) {
+            LocalDateTime takeoff = start.plusMinutes(random.nextInt(365 * 24 * 60));
+            LocalDateTime landing = takeoff.plusMinutes(30 + random.nextInt(12 * 60));
+            json.append(i > 0 ? "," : "")
+                    .append("{\"aircraft_type\": \"A32").append(random.nextInt(10))
+                    .append("\", \"aircraft_number\": ").append(random.nextInt(500))
+                    .append(", \"takeoff_time\": \"").append(takeoff)
+                    .append("\", \"landing_time\": \"").append(landing)
+                    .append("\", \"departure_airport\": \"AMS\", \"arrival_airport\": \"FLL\", \"crew\": [");
+            int crewSize = 1 + random.nextInt(4);
+            for (int c = 0; c < crewSize; c++) {
+                json.append(c > 0 ? ", " : "").append(1 + random.nextInt(SPECIALISTS));
+            }
+            json.append("]}");
+        }
+        return json.append("]}").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
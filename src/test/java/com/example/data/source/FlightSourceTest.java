@@ -0,0 +1,241 @@
+package com.example.data.source;
+
+import com.example.data.WorkloadGenerator;
+import com.example.data.json.FlightTimeTrackerModule;
+import com.example.data.models.Flight;
+import com.example.data.models.InputData;
+import com.example.data.models.Specialist;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightSourceTest {
+
+    @TempDir
+    Path directory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+            .registerModule(new FlightTimeTrackerModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void testAllFormatsReadSameData() throws IOException {
+        WorkloadGenerator generator = new WorkloadGenerator(5, 2_000, 80, 3, 0.05);
+        InputData inputData = generator.generate();
+        Path json = directory.resolve("input.json");
+        generator.writeJson(json);
+
+        assertEquals(inputData, new JsonDocumentSource(json, objectMapper).readInputData());
+        assertEquals(inputData, new NdjsonSource(writeNdjson(inputData), objectMapper).readInputData());
+        assertEquals(inputData, csvSource(inputData).readInputData());
+    }
+
+    @Test
+    void testJsonDocumentReadsThroughStreamWrapperAndSkipsUnknownFields() throws IOException {
+        Path json = directory.resolve("input.json");
+        Files.writeString(json, "{\"version\":{\"major\":2},\"specialists\":[{\"id\":1,\"name\":\"Шкипер\"}],"
+                + "\"flights\":[]}");
+        AtomicLong bytesRead = new AtomicLong();
+
+        InputData inputData = new JsonDocumentSource(json, objectMapper, in -> counting(in, bytesRead))
+                .readInputData();
+
+        assertEquals(List.of(new Specialist(1L, "Шкипер", new ArrayList<>())), inputData.getSpecialists());
+        assertTrue(inputData.getFlights().isEmpty());
+        assertEquals(Files.size(json), bytesRead.get());
+    }
+
+    @Test
+    void testLineSourcesCountBytesThroughStreamWrapper() throws IOException {
+        InputData inputData = new WorkloadGenerator(13, 3_000, 60, 2, 0.05).generate();
+        Path ndjsonFile = writeNdjson(inputData);
+        CsvSource wholeCsv = csvSource(inputData);
+        AtomicLong bytesRead = new AtomicLong();
+        UnaryOperator<InputStream> counting = in -> counting(in, bytesRead);
+        NdjsonSource ndjson = new NdjsonSource(ndjsonFile, objectMapper, counting);
+        CsvSource csv = new CsvSource(directory.resolve("flights.csv"), directory.resolve("specialists.csv"),
+                counting);
+
+        for (FlightSource source : List.of(ndjson, csv)) {
+            for (int parts = 1; parts <= 5; parts++) {
+                bytesRead.set(0);
+                assertEquals(inputData, readAll(ndjson == source ? ndjson.split(parts, 1) : csv.split(parts, 1)));
+                long overlap = bytesRead.get() - source.size();
+                assertTrue(overlap >= 0 && overlap <= (parts - 1) * 8 * 1024L, source + ": " + overlap);
+            }
+        }
+        assertEquals(Files.size(ndjsonFile), ndjson.size());
+        assertEquals(wholeCsv.size(), csv.size());
+    }
+
+    @Test
+    void testSplitPartsMatchWholeSource() throws IOException {
+        InputData inputData = new WorkloadGenerator(11, 500, 40, 2, 0.05).generate();
+        NdjsonSource ndjson = new NdjsonSource(writeNdjson(inputData), objectMapper);
+        CsvSource csv = csvSource(inputData);
+
+        for (int parts = 1; parts <= 7; parts++) {
+            List<FlightSource> ndjsonParts = ndjson.split(parts, 1);
+            List<FlightSource> csvParts = csv.split(parts, 1);
+
+            assertEquals(parts, ndjsonParts.size());
+            assertEquals(inputData, readAll(ndjsonParts));
+            assertEquals(parts, csvParts.size());
+            assertEquals(inputData, readAll(csvParts));
+        }
+        assertEquals(1, ndjson.split(8).size());
+    }
+
+    @Test
+    void testLinesLongerThanReadBuffer() throws IOException {
+        String name = "Специалист " + "x".repeat(200_000);
+        InputData inputData = new InputData(new ArrayList<>(List.of(
+                new Flight("Boeing 767", 101, LocalDateTime.of(2024, 10, 30, 9, 0),
+                        LocalDateTime.of(2024, 10, 30, 12, 0), "KUF", "VVO", List.of(4L)))),
+                new ArrayList<>(List.of(new Specialist(4L, name, new ArrayList<>()),
+                        new Specialist(5L, name + "y", new ArrayList<>()))));
+        NdjsonSource source = new NdjsonSource(writeNdjson(inputData), objectMapper);
+
+        for (int parts = 1; parts <= 4; parts++) {
+            assertEquals(inputData, readAll(source.split(parts, 1)));
+        }
+    }
+
+    @Test
+    void testCsvQuotedValuesAndColumnOrder() throws IOException {
+        Path flights = directory.resolve("flights.csv");
+        Files.writeString(flights, """
+                crew,takeoff_time,landing_time,aircraft_type,remarks,departure_airport,arrival_airport,aircraft_number\r
+                1;2,2024-10-30T09:00,2024-10-30T12:00:30,"Boeing ""767"", ER",ignored,KUF,VVO,101\r
+                \r
+                ,2024-10-31T09:00,,Boeing 767,,"",VVO,\r
+                """);
+        Path specialists = directory.resolve("specialists.csv");
+        Files.writeString(specialists, """
+                name,id
+                "Козловский, Данила",1
+                Шкипер,
+                """);
+
+        InputData inputData = new CsvSource(flights, specialists).readInputData();
+
+        assertEquals(List.of(new Specialist(1L, "Козловский, Данила", new ArrayList<>()),
+                new Specialist(null, "Шкипер", new ArrayList<>())), inputData.getSpecialists());
+        Flight first = inputData.getFlights().get(0);
+        assertEquals("Boeing \"767\", ER", first.getAircraftType());
+        assertEquals(101, first.getAircraftNumber());
+        assertEquals(LocalDateTime.of(2024, 10, 30, 12, 0, 30), first.getLandingTime());
+        assertArrayEquals(new long[]{1, 2}, first.getCrew());
+        Flight second = inputData.getFlights().get(1);
+        assertNull(second.getAircraftNumber());
+        assertNull(second.getLandingTime());
+        assertNull(second.getDepartureAirport());
+        assertEquals("VVO", second.getArrivalAirport());
+        assertEquals(0, second.getCrew().length);
+        assertEquals(2, inputData.getFlights().size());
+    }
+
+    @Test
+    void testMalformedRecordsReportLineOffset() throws IOException {
+        Path ndjson = directory.resolve("input.ndjson");
+        Files.writeString(ndjson, "{\"id\":1,\"name\":\"Шкипер\"}\n{}\n");
+        Path csv = directory.resolve("flights.csv");
+        Files.writeString(csv, "aircraft_number,crew\n101,1\n10x,1\n");
+        Path unterminated = directory.resolve("unterminated.csv");
+        Files.writeString(unterminated, "aircraft_type,crew\n\"Boeing,1\n");
+
+        IOException ndjsonError = assertThrows(IOException.class,
+                () -> new NdjsonSource(ndjson, objectMapper).readInputData());
+        IOException csvError = assertThrows(IOException.class, () -> new CsvSource(csv, null).readInputData());
+        IOException quoteError = assertThrows(IOException.class,
+                () -> new CsvSource(unterminated, null).readInputData());
+
+        int ndjsonOffset = "{\"id\":1,\"name\":\"Шкипер\"}\n".getBytes(StandardCharsets.UTF_8).length;
+        assertTrue(ndjsonError.getMessage().contains("смещением " + ndjsonOffset), ndjsonError.getMessage());
+        assertTrue(csvError.getMessage().contains("смещением 27"), csvError.getMessage());
+        assertTrue(quoteError.getMessage().contains("кавычка"), quoteError.getMessage());
+    }
+
+    private static InputStream counting(InputStream in, AtomicLong bytesRead) {
+        return new FilterInputStream(in) {
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int read = super.read(buffer, offset, length);
+                bytesRead.addAndGet(Math.max(read, 0));
+                return read;
+            }
+        };
+    }
+
+    private static InputData readAll(List<FlightSource> parts) throws IOException {
+        InputData inputData = new InputData(new ArrayList<>(), new ArrayList<>());
+        for (FlightSource part : parts) {
+            InputData partData = part.readInputData();
+            inputData.getSpecialists().addAll(partData.getSpecialists());
+            inputData.getFlights().addAll(partData.getFlights());
+        }
+        return inputData;
+    }
+
+    private Path writeNdjson(InputData inputData) throws IOException {
+        Path file = directory.resolve("input.ndjson");
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            for (Specialist specialist : inputData.getSpecialists()) {
+                writer.write(objectMapper.writeValueAsString(specialist));
+                writer.write('\n');
+            }
+            for (Flight flight : inputData.getFlights()) {
+                writer.write(objectMapper.writeValueAsString(flight));
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+
+    private CsvSource csvSource(InputData inputData) throws IOException {
+        Path specialists = directory.resolve("specialists.csv");
+        try (Writer writer = Files.newBufferedWriter(specialists)) {
+            writer.write("id,name\n");
+            for (Specialist specialist : inputData.getSpecialists()) {
+                writer.write((specialist.getId() == null ? "" : specialist.getId()) + ","
+                        + "\"" + specialist.getName().replace("\"", "\"\"") + "\"\n");
+            }
+        }
+        Path flights = directory.resolve("flights.csv");
+        try (Writer writer = Files.newBufferedWriter(flights)) {
+            writer.write("aircraft_type,aircraft_number,takeoff_time,landing_time,departure_airport,"
+                    + "arrival_airport,crew\n");
+            for (Flight flight : inputData.getFlights()) {
+                writer.write(String.join(",", flight.getAircraftType(), String.valueOf(flight.getAircraftNumber()),
+                        flight.getTakeoffTime().toString(), flight.getLandingTime().toString(),
+                        flight.getDepartureAirport(), flight.getArrivalAirport(),
+                        Arrays.stream(flight.getCrew()).mapToObj(String::valueOf).collect(Collectors.joining(";"))));
+                writer.write('\n');
+            }
+        }
+        return new CsvSource(flights, specialists);
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.services;
+
+import com.example.data.FileService;
+import com.example.data.OutputCache;
+import com.example.data.models.Flight;
+import com.example.data.models.InputData;
+import com.example.data.models.OutputData;
+import com.example.data.models.PartialOutputData;
+import com.example.data.models.Specialist;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachingProcessorTest {
+    private static final String SETTINGS = "inputFormat=JSON;externalAggregation=false";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    Path directory;
+
+    private final List<InputData> shards = new ArrayList<>();
+    private final List<Path> shardFiles = new ArrayList<>();
+    private CountingProcessor processor;
+    private OutputCache cache;
+    private CachingProcessor cachingProcessor;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Random random = new Random(7);
+        for (int shard = 0; shard < 3; shard++) {
+            List<Specialist> specialists = new ArrayList<>();
+            for (long id = shard * 10L + 1; id <= shard * 10L + 10; id++) {
+                specialists.add(new Specialist(id, "Специалист " + id, new ArrayList<>()));
+            }
+            List<Flight> flights = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                LocalDateTime takeoff = LocalDateTime.of(2024, 1, 1, 0, 0).plusHours(random.nextInt(90 * 24));
+                List<Long> crew = List.of(1L + random.nextInt(32), 1L + random.nextInt(32));
+                flights.add(new Flight("A320", 1 + random.nextInt(3), takeoff,
+                        takeoff.plusHours(random.nextInt(30)), "AMS", "FLL", crew));
+            }
+            shards.add(new InputData(flights, specialists));
+            shardFiles.add(directory.resolve("shard-" + shard + ".json"));
+            objectMapper.writeValue(shardFiles.get(shard).toFile(), shards.get(shard));
+        }
+
+        processor = new CountingProcessor();
+        cache = new OutputCache(objectMapper, directory.resolve("cache"), 100, 64L * 1024 * 1024);
+        cachingProcessor = new CachingProcessor(new FileService(objectMapper), processor, cache, SETTINGS);
+    }
+
+    @Test
+    void testMergedShardsMatchSingleRun() throws IOException {
+        OutputData merged = cachingProcessor.processShards(shardFiles);
+
+        assertEquals(new JsonFileProcessorImpl().processInputData(concat(shards)), merged);
+        assertEquals(3, processor.partialRuns.get());
+    }
+
+    @Test
+    void testOnlyChangedShardIsReprocessed() throws IOException {
+        cachingProcessor.processShards(shardFiles);
+
+        InputData changed = shards.get(1);
+        changed.getFlights().removeFirst();
+        objectMapper.writeValue(shardFiles.get(1).toFile(), changed);
+        OutputData merged = cachingProcessor.processShards(shardFiles);
+
+        assertEquals(4, processor.partialRuns.get());
+        assertEquals(new JsonFileProcessorImpl().processInputData(concat(shards)), merged);
+    }
+
+    @Test
+    void testShardProgressAndCancellation() throws IOException {
+        long shardBytes = 0;
+        for (Path shardFile : shardFiles) {
+            shardBytes += Files.size(shardFile);
+        }
+        ProcessingMonitor monitor = ProcessingMonitor.none();
+        cachingProcessor.processShards(shardFiles, monitor);
+
+        assertEquals(shardBytes, monitor.snapshot().totalBytes());
+        assertEquals(shardBytes, monitor.snapshot().bytesParsed());
+
+        InputData changed = shards.get(2);
+        changed.getFlights().removeFirst();
+        objectMapper.writeValue(shardFiles.get(2).toFile(), changed);
+        ProcessingMonitor cancelled = ProcessingMonitor.none();
+        cancelled.cancel();
+
+        assertThrows(ProcessingCancelledException.class, () -> cachingProcessor.processShards(shardFiles, cancelled));
+        assertEquals(3, processor.partialRuns.get());
+    }
+
+    @Test
+    void testUnchangedInputIsNotProcessedAgain() throws IOException {
+        AtomicInteger runs = new AtomicInteger();
+        CachingProcessor.InputProcessor inputProcessor = inputFile -> {
+            runs.incrementAndGet();
+            return processor.processInputData(objectMapper.readValue(inputFile.toFile(), InputData.class));
+        };
+
+        OutputData first = cachingProcessor.process(shardFiles.getFirst(), inputProcessor);
+        OutputData second = cachingProcessor.process(shardFiles.getFirst(), inputProcessor);
+
+        assertEquals(1, runs.get());
+        assertEquals(first, second);
+    }
+
+    @Test
+    void testChangedSettingsAreNotServedFromCache() throws IOException {
+        AtomicInteger runs = new AtomicInteger();
+        CachingProcessor.InputProcessor inputProcessor = inputFile -> {
+            runs.incrementAndGet();
+            return processor.processInputData(objectMapper.readValue(inputFile.toFile(), InputData.class));
+        };
+        CachingProcessor external = new CachingProcessor(new FileService(objectMapper), processor, cache,
+                "inputFormat=JSON;externalAggregation=true");
+
+        cachingProcessor.process(shardFiles.getFirst(), inputProcessor);
+        external.process(shardFiles.getFirst(), inputProcessor);
+        external.processShards(shardFiles);
+        cachingProcessor.process(shardFiles.getFirst(), inputProcessor);
+        cachingProcessor.processShards(shardFiles);
+
+        assertEquals(2, runs.get());
+        assertEquals(6, processor.partialRuns.get());
+    }
+
+    @Test
+    void testCachedOutputKeepsLimitReportOutsideOfOutputJson() throws IOException {
+        CachingProcessor.InputProcessor inputProcessor =
+                inputFile -> processor.processInputData(objectMapper.readValue(inputFile.toFile(), InputData.class));
+
+        OutputData first = cachingProcessor.process(shardFiles.getFirst(), inputProcessor);
+        OutputData second = cachingProcessor.process(shardFiles.getFirst(), inputProcessor);
+
+        assertNotNull(second.getLimitReport());
+        assertEquals(first.getLimitReport(), second.getLimitReport());
+        assertFalse(objectMapper.writeValueAsString(second).contains("limitReport"));
+    }
+
+    private static InputData concat(List<InputData> inputs) {
+        InputData inputData = new InputData(new ArrayList<>(), new ArrayList<>());
+        inputs.forEach(input -> {
+            inputData.getFlights().addAll(input.getFlights());
+            inputData.getSpecialists().addAll(input.getSpecialists());
+        });
+        return inputData;
+    }
+
+    private static class CountingProcessor extends JsonFileProcessorImpl {
+        private final AtomicInteger partialRuns = new AtomicInteger();
+
+        @Override
+        public PartialOutputData processPartialInputData(InputData inputData) {
+            partialRuns.incrementAndGet();
+            return super.processPartialInputData(inputData);
+        }
+    }
+}
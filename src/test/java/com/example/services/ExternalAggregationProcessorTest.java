@@ -0,0 +1,195 @@
+package com.example.services;
+
+import com.example.data.models.Flight;
+import com.example.data.models.InputData;
+import com.example.data.models.OutputData;
+import com.example.data.models.Specialist;
+import com.example.data.source.FlightSource;
+import com.example.data.source.JsonDocumentSource;
+import com.example.data.source.NdjsonSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExternalAggregationProcessorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @TempDir
+    Path directory;
+
+    private Path inputFile;
+    private Path tempDirectory;
+    private OutputData expected;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Random random = new Random(42);
+        List<Specialist> specialists = new ArrayList<>();
+        for (long id = 1; id <= 40; id++) {
+            specialists.add(new Specialist(id, "Специалист " + id, new ArrayList<>()));
+        }
+        List<Flight> flights = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            LocalDateTime takeoff = LocalDateTime.of(2024, 1, 1, 0, 0)
+                    .plusHours(random.nextInt(366 * 24))
+                    .plusMinutes(random.nextInt(60));
+            LocalDateTime landing = random.nextInt(20) == 0
+                    ? takeoff.minusHours(1 + random.nextInt(10))
+                    : takeoff.plusMinutes(random.nextInt(60 * 60));
+            List<Long> crew = new ArrayList<>();
+            for (int j = random.nextInt(4); j >= 0; j--) {
+                crew.add(1L + random.nextInt(45));
+            }
+            flights.add(new Flight("A320", random.nextInt(5), takeoff, landing, "AMS", "FLL", crew));
+        }
+        InputData inputData = new InputData(flights, specialists);
+
+        inputFile = directory.resolve("input.json");
+        objectMapper.writeValue(inputFile.toFile(), inputData);
+        tempDirectory = directory.resolve("tmp");
+        expected = new JsonFileProcessorImpl().processInputData(inputData);
+    }
+
+    @Test
+    void testPartitionedOutputMatchesInMemoryProcessing() throws IOException {
+        ExternalAggregationProcessor processor = new ExternalAggregationProcessor(4096, 4, tempDirectory);
+        assertTrue(processor.partitionCount(Files.size(inputFile)) > 1);
+
+        OutputData actual = processor.process(source(inputFile));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testPartitionsBeyondFanOutAreSplitInSeveralPasses() throws IOException {
+        ExternalAggregationProcessor processor =
+                new ExternalAggregationProcessor(512, 4, tempDirectory,
+                        LimitProximityCollector.DEFAULT_TOP_COUNT, 4);
+        assertTrue(processor.partitionCount(Files.size(inputFile)) > 4 * 4 * 4);
+
+        OutputData actual = processor.process(source(inputFile));
+
+        assertEquals(expected, actual);
+        try (Stream<Path> files = Files.list(tempDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testNdjsonSourceIsSpilledLikeJson() throws IOException {
+        InputData inputData = objectMapper.readValue(inputFile.toFile(), InputData.class);
+        Path ndjson = directory.resolve("input.ndjson");
+        try (Writer writer = Files.newBufferedWriter(ndjson)) {
+            for (Object record : Stream.concat(inputData.getFlights().stream(), inputData.getSpecialists().stream())
+                    .toList()) {
+                writer.write(objectMapper.writeValueAsString(record));
+                writer.write('\n');
+            }
+        }
+        ExternalAggregationProcessor processor = new ExternalAggregationProcessor(4096, 4, tempDirectory);
+
+        OutputData actual = processor.process(new NdjsonSource(ndjson, objectMapper));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testSinglePartitionOutputMatchesInMemoryProcessing() throws IOException {
+        ExternalAggregationProcessor processor =
+                new ExternalAggregationProcessor(1024L * 1024 * 1024, 1, tempDirectory);
+        assertEquals(1, processor.partitionCount(Files.size(inputFile)));
+
+        OutputData actual = processor.process(source(inputFile));
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testSpecialistWithoutIdIsSkippedLikeInMemoryProcessing() throws IOException {
+        InputData inputData = new InputData(new ArrayList<>(List.of(
+                new Flight("A320", 1, LocalDateTime.of(2024, 3, 4, 10, 0), LocalDateTime.of(2024, 3, 4, 14, 0),
+                        "AMS", "FLL", List.of(1L)))),
+                new ArrayList<>(List.of(new Specialist(null, "Без идентификатора", new ArrayList<>()),
+                        new Specialist(1L, "Специалист 1", new ArrayList<>()))));
+        Path file = directory.resolve("without-id.json");
+        objectMapper.writeValue(file.toFile(), inputData);
+        OutputData inMemory = new JsonFileProcessorImpl().processInputData(inputData);
+
+        OutputData actual = new ExternalAggregationProcessor(4096, 2, tempDirectory).process(source(file));
+
+        assertEquals(inMemory, actual);
+        assertEquals(1, actual.getSpecialists().size());
+        assertEquals(1L, actual.getSpecialists().get(0).getId());
+    }
+
+    @Test
+    void testAggregationStageCountsOnlySpecialistsWithFlights() throws IOException {
+        InputData inputData = objectMapper.readValue(inputFile.toFile(), InputData.class);
+        for (long id = 100; id < 110; id++) {
+            inputData.getSpecialists().add(new Specialist(id, "Без полетов " + id, new ArrayList<>()));
+        }
+        Path file = directory.resolve("idle-specialists.json");
+        objectMapper.writeValue(file.toFile(), inputData);
+        ProcessingMonitor monitor = ProcessingMonitor.none();
+
+        new ExternalAggregationProcessor(4096, 2, tempDirectory).process(source(file), monitor);
+
+        ProcessingProgress progress = monitor.snapshot();
+        assertEquals(ProcessingProgress.Stage.AGGREGATION, progress.stage());
+        assertTrue(progress.totalSpecialists() <= 40, String.valueOf(progress.totalSpecialists()));
+        assertEquals(progress.totalSpecialists(), progress.specialistsFinished());
+    }
+
+    @Test
+    void testTemporaryFilesAreDeleted() throws IOException {
+        new ExternalAggregationProcessor(4096, 2, tempDirectory).process(source(inputFile));
+
+        try (Stream<Path> files = Files.list(tempDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void testCancelledRunDeletesTemporaryFiles() throws IOException {
+        AtomicReference<ProcessingMonitor> monitor = new AtomicReference<>();
+        monitor.set(new ProcessingMonitor(progress -> {
+            if (progress.stage() == ProcessingProgress.Stage.AGGREGATION) {
+                monitor.get().cancel();
+            }
+        }, Duration.ofDays(1)));
+        ExternalAggregationProcessor processor = new ExternalAggregationProcessor(4096, 2, tempDirectory);
+
+        assertThrows(ProcessingCancelledException.class, () -> processor.process(source(inputFile), monitor.get()));
+
+        assertEquals(0, monitor.get().snapshot().specialistsFinished());
+        try (Stream<Path> files = Files.list(tempDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private FlightSource source(Path file) {
+        return new JsonDocumentSource(file, objectMapper);
+    }
+}
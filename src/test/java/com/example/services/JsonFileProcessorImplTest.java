@@ -2,18 +2,32 @@ package com.example.services;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import com.example.data.models.AircraftUtilization;
+import com.example.data.models.AirportMovements;
 import com.example.data.models.Flight;
 import com.example.data.models.InputData;
+import com.example.data.models.LimitReport;
+import com.example.data.models.LimitReportEntry;
 import com.example.data.models.MonthlyData;
+import com.example.data.models.MonthlyLimitReport;
 import com.example.data.models.OutputData;
 import com.example.data.models.Specialist;
+import com.example.data.source.FlightSource;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class JsonFileProcessorImplTest {
@@ -107,7 +121,41 @@ class JsonFileProcessorImplTest {
         assertTrue(octoberData.getFlags().isWeeksOver36Hours());
         assertFalse(decemberData.getFlags().isDaysOver8Hours());
         assertFalse(decemberData.getFlags().isOver80Hours());
-        assertFalse(decemberData.getFlags().isWeeksOver36Hours());
+        // Неделя 25.11 - 01.12 пересекает границу месяцев и учитывается также в декабре, потому что
+        // 01.12 специалист был в полете (5 часов): неделя относится только к месяцам, в дни которых летал специалист.
+        assertTrue(decemberData.getFlags().isWeeksOver36Hours());
+    }
+
+    @Test
+    void testWeekSpanningTwoMonthsIsCreditedOnlyToMonthsWithFlightsInThatWeek() {
+        Flight septemberEarly = new Flight("Boeing 767", 101, LocalDateTime.of(2024, 9, 10, 8, 0),
+                LocalDateTime.of(2024, 9, 10, 10, 0), "KUF", "VVO", List.of(4L));
+        Flight septemberInWeek = new Flight("Boeing 767", 101, LocalDateTime.of(2024, 9, 30, 8, 0),
+                LocalDateTime.of(2024, 9, 30, 10, 0), "KUF", "VVO", List.of(5L));
+        Flight october = new Flight("Boeing 767", 101, LocalDateTime.of(2024, 10, 2, 0, 0),
+                LocalDateTime.of(2024, 10, 3, 14, 0), "VVO", "KUF", List.of(4L, 5L));
+        List<Specialist> specialists = List.of(new Specialist(4L, "Данила Козловский", new ArrayList<>()),
+                new Specialist(5L, "Владимир Машков", new ArrayList<>()));
+
+        OutputData outputData = jsonFileProcessorImpl.processInputData(
+                new InputData(List.of(septemberEarly, septemberInWeek, october), specialists));
+
+        // Неделя 30.09 - 06.10: у первого специалиста в сентябрьские дни недели полетов нет, поэтому
+        // 38 часов октября не учитываются в сентябре; второй специалист летал 30.09, и неделя учитывается в обоих.
+        MonthlyData firstSeptember = outputData.getSpecialists().get(0).getMonthlyData().get(0);
+        MonthlyData firstOctober = outputData.getSpecialists().get(0).getMonthlyData().get(1);
+        assertEquals(2, firstSeptember.getFlightTimeHours());
+        assertEquals(38, firstOctober.getFlightTimeHours());
+        assertFalse(firstSeptember.getFlags().isWeeksOver36Hours());
+        assertTrue(firstOctober.getFlags().isWeeksOver36Hours());
+        MonthlyData secondSeptember = outputData.getSpecialists().get(1).getMonthlyData().get(0);
+        MonthlyData secondOctober = outputData.getSpecialists().get(1).getMonthlyData().get(1);
+        assertTrue(secondSeptember.getFlags().isWeeksOver36Hours());
+        assertTrue(secondOctober.getFlags().isWeeksOver36Hours());
+
+        MonthlyLimitReport septemberReport = outputData.getLimitReport().getMonths().get(0);
+        assertEquals("2024-09", septemberReport.getMonth());
+        assertEquals(List.of(new LimitReportEntry(5L, "Владимир Машков", 40)), septemberReport.getNearWeeklyLimit());
     }
 
     @Test
@@ -250,4 +298,374 @@ class JsonFileProcessorImplTest {
         assertEquals(9, monthlyData.getFlightTimeHours());
         assertTrue(monthlyData.getFlags().isDaysOver8Hours());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testAircraftAndAirportUtilization() {
+        Flight first = new Flight(
+                "Boeing 767",
+                101,
+                LocalDateTime.of(2024, 1, 31, 22, 0),
+                LocalDateTime.of(2024, 2, 1, 5, 0),
+                "KUF",
+                "VVO",
+                List.of(4L, 5L)
+        );
+        Flight second = new Flight(
+                "Boeing 767",
+                101,
+                LocalDateTime.of(2024, 2, 3, 10, 0),
+                LocalDateTime.of(2024, 2, 3, 15, 0),
+                "VVO",
+                "KUF",
+                List.of(4L)
+        );
+        Flight invalid = new Flight(
+                "A320",
+                7,
+                LocalDateTime.of(2024, 2, 3, 10, 0),
+                LocalDateTime.of(2024, 2, 2, 15, 0),
+                "VVO",
+                "KUF",
+                List.of(5L)
+        );
+
+        Specialist specialist1 = new Specialist(4L, "Данила Козловский", new ArrayList<>());
+        Specialist specialist2 = new Specialist(5L, "Владимир Машков", new ArrayList<>());
+        InputData inputData = new InputData(List.of(first, second, invalid), List.of(specialist1, specialist2));
+
+        OutputData outputData = jsonFileProcessorImpl.processInputData(inputData);
+
+        assertEquals(List.of(
+                new AircraftUtilization("Boeing 767", 101, "2024-01", 2, 1),
+                new AircraftUtilization("Boeing 767", 101, "2024-02", 10, 1)
+        ), outputData.getAircraftUtilization());
+        assertEquals(List.of(
+                new AirportMovements("KUF", "2024-01", 1, 0),
+                new AirportMovements("KUF", "2024-02", 0, 1),
+                new AirportMovements("VVO", "2024-02", 1, 1)
+        ), outputData.getAirportMovements());
+    }
+
+    @Test
+    void testUtilizationOfFlightsYearsApart() {
+        Flight late = new Flight("Boeing 767", 101, LocalDateTime.of(2027, 12, 31, 20, 0),
+                LocalDateTime.of(2028, 1, 1, 2, 0), "KUF", "VVO", List.of(4L));
+        Flight early = new Flight("Boeing 767", 101, LocalDateTime.of(2020, 3, 1, 10, 0),
+                LocalDateTime.of(2020, 3, 1, 12, 0), "VVO", "KUF", List.of(4L));
+        Flight middle = new Flight("Boeing 767", 101, LocalDateTime.of(2024, 2, 29, 23, 0),
+                LocalDateTime.of(2024, 3, 1, 1, 0), "KUF", "VVO", List.of(4L));
+        InputData inputData = new InputData(List.of(late, early, middle),
+                List.of(new Specialist(4L, "Данила Козловский", new ArrayList<>())));
+
+        OutputData outputData = jsonFileProcessorImpl.processInputData(inputData);
+
+        assertEquals(List.of(
+                new AircraftUtilization("Boeing 767", 101, "2020-03", 2, 1),
+                new AircraftUtilization("Boeing 767", 101, "2024-02", 1, 1),
+                new AircraftUtilization("Boeing 767", 101, "2024-03", 1, 0),
+                new AircraftUtilization("Boeing 767", 101, "2027-12", 4, 1),
+                new AircraftUtilization("Boeing 767", 101, "2028-01", 2, 0)
+        ), outputData.getAircraftUtilization());
+    }
+
+    @Test
+    void testAircraftWithSameTypeAreCountedByNumber() {
+        List<Flight> flights = new ArrayList<>();
+        for (int round = 0; round < 2; round++) {
+            for (int number = -20; number < 20; number++) {
+                flights.add(new Flight("Boeing 767", number, LocalDateTime.of(2024, 3, 1, 8, 0),
+                        LocalDateTime.of(2024, 3, 1, 10, 0), "KUF", "VVO", List.of(4L)));
+            }
+            flights.add(new Flight("Boeing 767", null, LocalDateTime.of(2024, 3, 1, 8, 0),
+                    LocalDateTime.of(2024, 3, 1, 11, 0), "KUF", "VVO", List.of(4L)));
+            flights.add(new Flight(null, 5, LocalDateTime.of(2024, 3, 1, 8, 0),
+                    LocalDateTime.of(2024, 3, 1, 12, 0), "KUF", "VVO", List.of(4L)));
+        }
+        InputData inputData = new InputData(flights,
+                List.of(new Specialist(4L, "Данила Козловский", new ArrayList<>())));
+
+        List<AircraftUtilization> utilization = jsonFileProcessorImpl.processInputData(inputData)
+                .getAircraftUtilization();
+
+        assertEquals(42, utilization.size());
+        assertEquals(new AircraftUtilization(null, 5, "2024-03", 8, 2), utilization.get(0));
+        assertEquals(new AircraftUtilization("Boeing 767", null, "2024-03", 6, 2), utilization.get(1));
+        assertEquals(new AircraftUtilization("Boeing 767", -20, "2024-03", 4, 2), utilization.get(2));
+        assertTrue(utilization.stream().skip(2).allMatch(aircraft -> aircraft.getFlights() == 2));
+    }
+
+    @Test
+    void testRepeatedRunsDoNotAccumulateState() {
+        Flight flight = new Flight(
+                "Boeing 767",
+                101,
+                LocalDateTime.of(2024, 10, 30, 9, 0),
+                LocalDateTime.of(2024, 10, 30, 18, 0),
+                "KUF",
+                "VVO",
+                List.of(4L)
+        );
+        InputData firstInput = new InputData(List.of(flight),
+                List.of(new Specialist(4L, "Данила Козловский", new ArrayList<>())));
+        InputData secondInput = new InputData(List.of(),
+                List.of(new Specialist(5L, "Владимир Машков", new ArrayList<>())));
+
+        OutputData firstOutput = jsonFileProcessorImpl.processInputData(firstInput);
+        OutputData repeatedOutput = jsonFileProcessorImpl.processInputData(firstInput);
+        OutputData secondOutput = jsonFileProcessorImpl.processInputData(secondInput);
+
+        assertEquals(firstOutput, repeatedOutput);
+        assertEquals(9, repeatedOutput.getSpecialists().getFirst().getMonthlyData().getFirst().getFlightTimeHours());
+        assertEquals(1, secondOutput.getSpecialists().size());
+        assertEquals(5L, secondOutput.getSpecialists().getFirst().getId());
+        assertTrue(secondOutput.getSpecialists().getFirst().getMonthlyData().isEmpty());
+    }
+
+    @Test
+    void testInputSpecialistsAreNotModified() {
+        Flight flight = new Flight(
+                "Boeing 767",
+                101,
+                LocalDateTime.of(2024, 10, 30, 9, 0),
+                LocalDateTime.of(2024, 10, 30, 18, 0),
+                "KUF",
+                "VVO",
+                List.of(4L)
+        );
+        Specialist specialist = new Specialist(4L, "Данила Козловский", new ArrayList<>());
+        InputData inputData = new InputData(List.of(flight), List.of(specialist));
+
+        OutputData outputData = jsonFileProcessorImpl.processInputData(inputData);
+
+        assertTrue(specialist.getMonthlyData().isEmpty());
+        assertNotSame(specialist, outputData.getSpecialists().getFirst());
+        assertEquals(1, outputData.getSpecialists().getFirst().getMonthlyData().size());
+    }
+
+    @Test
+    void testConcurrentRunsOnSharedInstance() throws Exception {
+        List<Callable<OutputData>> tasks = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            long specialistId = i;
+            tasks.add(() -> {
+                Flight flight = new Flight(
+                        "Boeing 767",
+                        101,
+                        LocalDateTime.of(2024, 10, 30, 9, 0),
+                        LocalDateTime.of(2024, 10, 30, 9 + (int) specialistId % 10, 0),
+                        "KUF",
+                        "VVO",
+                        List.of(specialistId)
+                );
+                Specialist specialist = new Specialist(specialistId, "Специалист " + specialistId, new ArrayList<>());
+                return jsonFileProcessorImpl.processInputData(new InputData(List.of(flight), List.of(specialist)));
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<OutputData>> results = executor.invokeAll(tasks);
+            for (int i = 0; i < results.size(); i++) {
+                OutputData outputData = results.get(i).get();
+                assertEquals(1, outputData.getSpecialists().size());
+                Specialist specialist = outputData.getSpecialists().getFirst();
+                assertEquals(i, specialist.getId());
+                assertEquals(i % 10, specialist.getMonthlyData().getFirst().getFlightTimeHours());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDailyHoursCombineFlightsFromDifferentTakeoffMonths() {
+        Flight overnight = new Flight(
+                "Boeing 767",
+                101,
+                LocalDateTime.of(2024, 10, 31, 22, 0),
+                LocalDateTime.of(2024, 11, 1, 3, 0),
+                "KUF",
+                "VVO",
+                List.of(4L)
+        );
+        Flight sameDay = new Flight(
+                "Boeing 767",
+                101,
+                LocalDateTime.of(2024, 11, 1, 10, 0),
+                LocalDateTime.of(2024, 11, 1, 16, 0),
+                "VVO",
+                "KUF",
+                List.of(4L)
+        );
+
+        Specialist specialist = new Specialist(4L, "Данила Козловский", new ArrayList<>());
+        InputData inputData = new InputData(List.of(overnight, sameDay), List.of(specialist));
+
+        OutputData outputData = jsonFileProcessorImpl.processInputData(inputData);
+
+        MonthlyData novemberData = outputData.getSpecialists().getFirst().getMonthlyData().get(1);
+        assertEquals(9, novemberData.getFlightTimeHours());
+        assertTrue(novemberData.getFlags().isDaysOver8Hours());
+    }
+
+    @Test
+    void testProgressIsReported() {
+        Flight first = new Flight("Boeing 767", 101, LocalDateTime.of(2024, 10, 30, 9, 0),
+                LocalDateTime.of(2024, 10, 30, 12, 0), "KUF", "VVO", List.of(4L, 5L));
+        Flight second = new Flight("Boeing 767", 101, LocalDateTime.of(2024, 10, 31, 9, 0),
+                LocalDateTime.of(2024, 10, 31, 12, 0), "VVO", "KUF", List.of(4L));
+        List<Specialist> specialists = List.of(new Specialist(4L, "Данила Козловский", new ArrayList<>()),
+                new Specialist(5L, "Шкипер", new ArrayList<>()));
+        List<ProcessingProgress.Stage> stages = new ArrayList<>();
+        ProcessingMonitor monitor = new ProcessingMonitor(progress -> stages.add(progress.stage()), Duration.ZERO);
+
+        jsonFileProcessorImpl.processInputData(new InputData(List.of(first, second), specialists), monitor);
+
+        ProcessingProgress progress = monitor.snapshot();
+        assertEquals(List.of(ProcessingProgress.Stage.GROUPING, ProcessingProgress.Stage.AGGREGATION), stages);
+        assertEquals(2, progress.flightsAggregated());
+        assertEquals(2, progress.totalFlights());
+        assertEquals(2, progress.specialistsFinished());
+        assertEquals(2, progress.totalSpecialists());
+        assertEquals(Duration.ZERO, progress.estimatedRemaining());
+    }
+
+    @Test
+    void testCancelledRunIsInterrupted() {
+        Flight flight = new Flight("Boeing 767", 101, LocalDateTime.of(2024, 10, 30, 9, 0),
+                LocalDateTime.of(2024, 10, 30, 12, 0), "KUF", "VVO", List.of(4L));
+        InputData inputData = new InputData(List.of(flight),
+                List.of(new Specialist(4L, "Данила Козловский", new ArrayList<>())));
+        ProcessingMonitor monitor = new ProcessingMonitor(progress -> {
+            if (progress.stage() == ProcessingProgress.Stage.AGGREGATION) {
+                throw new AssertionError("Расчет специалистов не должен начинаться после отмены.");
+            }
+        }, Duration.ZERO);
+        monitor.cancel();
+
+        assertThrows(ProcessingCancelledException.class, () -> jsonFileProcessorImpl.processInputData(inputData, monitor));
+        assertTrue(monitor.isCancelled());
+    }
+
+    @Test
+    void testProcessSourceMatchesInputDataForAnyNumberOfParts() throws IOException {
+        List<Flight> flights = new ArrayList<>();
+        for (int day = 1; day <= 28; day++) {
+            flights.add(new Flight("Boeing 767", 100 + day % 3, LocalDateTime.of(2024, 10, day, 9, 0),
+                    LocalDateTime.of(2024, 10, day, 9 + day % 12, 0), "KUF", "VVO", List.of((long) day % 5, 7L)));
+        }
+        List<Specialist> specialists = new ArrayList<>();
+        for (long id = 0; id < 8; id++) {
+            specialists.add(new Specialist(id, "Специалист " + id, new ArrayList<>()));
+        }
+        OutputData expected = jsonFileProcessorImpl.processInputData(new InputData(flights, specialists));
+
+        for (int parts = 1; parts <= 5; parts++) {
+            OutputData outputData = new JsonFileProcessorImpl(3)
+                    .processSource(sourceOf(specialists, flights, parts), ProcessingMonitor.none());
+
+            assertEquals(expected, outputData);
+        }
+    }
+
+    @Test
+    void testProcessSourceRethrowsReadErrors() {
+        FlightSource failing = sink -> {
+            throw new IOException("Ошибка чтения");
+        };
+        FlightSource source = new FlightSource() {
+            @Override
+            public void read(Sink sink) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<FlightSource> split(int parts) {
+                return List.of(sink -> {
+                }, failing);
+            }
+        };
+
+        IOException error = assertThrows(IOException.class,
+                () -> new JsonFileProcessorImpl(2).processSource(source, ProcessingMonitor.none()));
+        assertEquals("Ошибка чтения", error.getMessage());
+    }
+
+    @Test
+    void testLimitReportOrdersSpecialistsByDistanceToLimits() {
+        LimitReport report = jsonFileProcessorImpl.processInputData(limitReportInput()).getLimitReport();
+
+        assertEquals(1, report.getMonths().size());
+        MonthlyLimitReport january = report.getMonths().getFirst();
+        assertEquals("2025-01", january.getMonth());
+        assertEquals(List.of(new LimitReportEntry(1L, "Владимир Машков", 79),
+                new LimitReportEntry(2L, "Данила Козловский", 85),
+                new LimitReportEntry(4L, "Will Smith", 34),
+                new LimitReportEntry(3L, "Bob Marley", 10)), january.getClosestToMonthlyLimit());
+        assertEquals(List.of(new LimitReportEntry(4L, "Will Smith", 34)), january.getNearWeeklyLimit());
+    }
+
+    @Test
+    void testLimitReportKeepsConfiguredNumberOfClosestSpecialists() {
+        LimitReport report = new JsonFileProcessorImpl(1, 2).processInputData(limitReportInput()).getLimitReport();
+
+        MonthlyLimitReport january = report.getMonths().getFirst();
+        assertEquals(List.of(new LimitReportEntry(1L, "Владимир Машков", 79),
+                new LimitReportEntry(2L, "Данила Козловский", 85)), january.getClosestToMonthlyLimit());
+        assertEquals(List.of(new LimitReportEntry(4L, "Will Smith", 34)), january.getNearWeeklyLimit());
+        assertThrows(IllegalArgumentException.class, () -> new JsonFileProcessorImpl(1, 0));
+    }
+
+    private static InputData limitReportInput() {
+        List<Flight> flights = List.of(
+                new Flight("Boeing 767", 101, LocalDateTime.of(2025, 1, 6, 0, 0),
+                        LocalDateTime.of(2025, 1, 7, 10, 0), "KUF", "VVO", List.of(1L, 4L)),
+                new Flight("Boeing 767", 101, LocalDateTime.of(2025, 1, 20, 0, 0),
+                        LocalDateTime.of(2025, 1, 21, 21, 0), "VVO", "KUF", List.of(1L)),
+                new Flight("Boeing 767", 102, LocalDateTime.of(2025, 1, 6, 0, 0),
+                        LocalDateTime.of(2025, 1, 9, 13, 0), "KUF", "VVO", List.of(2L)),
+                new Flight("Boeing 767", 103, LocalDateTime.of(2025, 1, 14, 8, 0),
+                        LocalDateTime.of(2025, 1, 14, 18, 0), "KUF", "VVO", List.of(3L)));
+        List<Specialist> specialists = List.of(
+                new Specialist(1L, "Владимир Машков", new ArrayList<>()),
+                new Specialist(2L, "Данила Козловский", new ArrayList<>()),
+                new Specialist(3L, "Bob Marley", new ArrayList<>()),
+                new Specialist(4L, "Will Smith", new ArrayList<>()));
+        return new InputData(flights, specialists);
+    }
+
+    /**
+     * Создает источник, который делится на заданное количество частей: специалисты в первой части,
+     * полеты распределены по частям подряд.
+     */
+    private static FlightSource sourceOf(List<Specialist> specialists, List<Flight> flights, int parts) {
+        return new FlightSource() {
+            @Override
+            public void read(Sink sink) throws IOException {
+                feed(sink, specialists, flights);
+            }
+
+            @Override
+            public List<FlightSource> split(int ignored) {
+                List<FlightSource> sources = new ArrayList<>();
+                for (int part = 0; part < parts; part++) {
+                    List<Flight> partFlights = flights.subList(flights.size() * part / parts,
+                            flights.size() * (part + 1) / parts);
+                    List<Specialist> partSpecialists = part == 0 ? specialists : List.of();
+                    sources.add(sink -> feed(sink, partSpecialists, partFlights));
+                }
+                return sources;
+            }
+        };
+    }
+
+    private static void feed(FlightSource.Sink sink, List<Specialist> specialists, List<Flight> flights)
+            throws IOException {
+        for (Specialist specialist : specialists) {
+            sink.specialist(specialist);
+        }
+        for (Flight flight : flights) {
+            sink.flight(flight);
+        }
+    }
+}
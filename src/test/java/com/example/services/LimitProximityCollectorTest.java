@@ -0,0 +1,47 @@
+package com.example.services;
+
+import com.example.data.models.LimitReport;
+import com.example.data.models.LimitReportEntry;
+import com.example.data.models.MonthlyLimitReport;
+import com.example.data.models.Specialist;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LimitProximityCollectorTest {
+
+    @Test
+    void testOnlyClosestSpecialistsAreKept() {
+        LimitProximityCollector collector = new LimitProximityCollector(2, 0);
+
+        collector.accept(specialist(1L), "2025-01", 10, 0);
+        collector.accept(specialist(2L), "2025-01", 82, 0);
+        collector.accept(specialist(3L), "2025-01", 78, 36);
+        collector.accept(specialist(4L), "2025-01", 120, 37);
+        collector.accept(specialist(5L), "2024-12", 80, 0);
+
+        LimitReport report = collector.toReport();
+
+        assertEquals(2, report.getClosestToMonthlyLimitCount());
+        List<MonthlyLimitReport> months = report.getMonths();
+        assertEquals(List.of("2024-12", "2025-01"), months.stream().map(MonthlyLimitReport::getMonth).toList());
+        assertEquals(List.of(new LimitReportEntry(5L, "Специалист 5", 80)), months.get(0).getClosestToMonthlyLimit());
+        assertEquals(List.of(new LimitReportEntry(2L, "Специалист 2", 82),
+                new LimitReportEntry(3L, "Специалист 3", 78)), months.get(1).getClosestToMonthlyLimit());
+        assertEquals(List.of(new LimitReportEntry(3L, "Специалист 3", 36)), months.get(1).getNearWeeklyLimit());
+    }
+
+    @Test
+    void testInvalidSettingsAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new LimitProximityCollector(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new LimitProximityCollector(10, -1));
+    }
+
+    private static Specialist specialist(long id) {
+        return new Specialist(id, "Специалист " + id, new ArrayList<>());
+    }
+}
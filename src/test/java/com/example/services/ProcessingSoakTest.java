@@ -0,0 +1,98 @@
+package com.example.services;
+
+import com.example.data.WorkloadGenerator;
+import com.example.data.models.InputData;
+import com.example.data.models.OutputData;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Длительная проверка обработки в памяти на синтетических данных {@link WorkloadGenerator}.
+ *
+ * <p>Одни и те же входные данные обрабатываются многократно при фиксированном размере кучи. После каждого
+ * прогона измеряются занятая после сборки мусора память и пропускная способность; медианы последних
+ * прогонов сравниваются с медианами первых прогонов после прогрева. Рост памяти указывает на состояние,
+ * накапливаемое между запусками, падение пропускной способности — на деградацию со временем.</p>
+ *
+ * <p>Не запускается при обычной сборке. Запуск: <code>mvn test -Psoak</code>. Объем и продолжительность
+ * задаются свойствами <code>soak.flights</code>, <code>soak.specialists</code> и <code>soak.iterations</code>;
+ * количество прогонов должно быть не меньше двух окон сравнения, чтобы первые и последние прогоны
+ * не пересекались.</p>
+ */
+@Slf4j
+@Tag("soak")
+class ProcessingSoakTest {
+    private static final int FLIGHTS = Integer.getInteger("soak.flights", 2_000_000);
+    private static final int SPECIALISTS = Integer.getInteger("soak.specialists", 20_000);
+    private static final int ITERATIONS = Integer.getInteger("soak.iterations", 30);
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int WINDOW = 5;
+    private static final double MAX_MEMORY_GROWTH = 1.10;
+    private static final long MEMORY_TOLERANCE_BYTES = 16L * 1024 * 1024;
+    private static final double MIN_THROUGHPUT_RATIO = 0.75;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @Test
+    void soakInMemoryProcessing() {
+        assertTrue(ITERATIONS >= 2 * WINDOW,
+                "soak.iterations должно быть не меньше " + 2 * WINDOW + ", указано " + ITERATIONS + ".");
+        InputData inputData = new WorkloadGenerator(42, FLIGHTS, SPECIALISTS, 6, 0.0001).generate();
+        JsonFileProcessor processor = new JsonFileProcessorImpl();
+        OutputData reference = processor.processInputData(inputData);
+
+        long[] usedBytes = new long[ITERATIONS];
+        double[] flightsPerSecond = new double[ITERATIONS];
+        for (int i = 0; i < WARMUP_ITERATIONS + ITERATIONS; i++) {
+            long start = System.nanoTime();
+            OutputData outputData = processor.processInputData(inputData);
+            long elapsed = System.nanoTime() - start;
+            assertEquals(reference.getSpecialists().size(), outputData.getSpecialists().size());
+            outputData = null;
+
+            if (i >= WARMUP_ITERATIONS) {
+                int iteration = i - WARMUP_ITERATIONS;
+                usedBytes[iteration] = usedHeapAfterGc();
+                flightsPerSecond[iteration] = FLIGHTS * 1e9 / elapsed;
+                log.info("Прогон {}: {} рейсов/с, занято {} МБ.", iteration, (long) flightsPerSecond[iteration],
+                        usedBytes[iteration] / (1024 * 1024));
+            }
+        }
+
+        long earlyMemory = median(Arrays.copyOfRange(usedBytes, 0, WINDOW));
+        long lateMemory = median(Arrays.copyOfRange(usedBytes, ITERATIONS - WINDOW, ITERATIONS));
+        double earlyThroughput = median(Arrays.copyOfRange(flightsPerSecond, 0, WINDOW));
+        double lateThroughput = median(Arrays.copyOfRange(flightsPerSecond, ITERATIONS - WINDOW, ITERATIONS));
+        log.info("Память: {} МБ -> {} МБ, пропускная способность: {} -> {} рейсов/с, максимум кучи {} МБ.",
+                earlyMemory / (1024 * 1024), lateMemory / (1024 * 1024), (long) earlyThroughput,
+                (long) lateThroughput, Runtime.getRuntime().maxMemory() / (1024 * 1024));
+
+        assertTrue(lateMemory <= earlyMemory * MAX_MEMORY_GROWTH + MEMORY_TOLERANCE_BYTES,
+                "Занятая память выросла с " + earlyMemory + " до " + lateMemory + " байт.");
+        assertTrue(lateThroughput >= earlyThroughput * MIN_THROUGHPUT_RATIO,
+                "Пропускная способность снизилась с " + earlyThroughput + " до " + lateThroughput + " рейсов/с.");
+    }
+
+    private long usedHeapAfterGc() {
+        System.gc();
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+
+    private static long median(long[] values) {
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+
+    private static double median(double[] values) {
+        Arrays.sort(values);
+        return values[values.length / 2];
+    }
+}
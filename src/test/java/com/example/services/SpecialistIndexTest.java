@@ -0,0 +1,39 @@
+package com.example.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SpecialistIndexTest {
+
+    @Test
+    void testDenseIdsKeepInputOrder() {
+        SpecialistIndex index = new SpecialistIndex(new long[]{5, 3, 4, 3});
+
+        assertEquals(3, index.size());
+        assertEquals(0, index.indexOf(5));
+        assertEquals(1, index.indexOf(3));
+        assertEquals(2, index.indexOf(4));
+        assertEquals(SpecialistIndex.NOT_FOUND, index.indexOf(6));
+        assertEquals(SpecialistIndex.NOT_FOUND, index.indexOf(Long.MIN_VALUE));
+    }
+
+    @Test
+    void testSparseAndCrewOnlyIds() {
+        long[] ids = new long[1000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i * 1_000_000_007L - 500_000_000_000L;
+        }
+        SpecialistIndex index = new SpecialistIndex(ids);
+
+        assertEquals(1000, index.getOrAdd(Long.MAX_VALUE));
+        assertEquals(1001, index.getOrAdd(Long.MIN_VALUE));
+        assertEquals(1000, index.getOrAdd(Long.MAX_VALUE));
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(i, index.indexOf(ids[i]));
+            assertEquals(ids[i], index.idOf(i));
+        }
+        assertEquals(1002, index.size());
+        assertEquals(SpecialistIndex.NOT_FOUND, index.indexOf(1));
+    }
+}
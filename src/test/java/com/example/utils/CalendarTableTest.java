@@ -0,0 +1,63 @@
+package com.example.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CalendarTableTest {
+
+    @Test
+    void testWeeksAndMonthsAcrossYearBoundary() {
+        CalendarTable calendar = CalendarTable.builder()
+                .include(LocalDate.of(2024, 12, 25))
+                .include(LocalDate.of(2025, 1, 8))
+                .build();
+
+        assertEquals(0, calendar.weekOfEpochDay(epochDay(2024, 12, 23)));
+        assertEquals(1, calendar.weekOfEpochDay(epochDay(2024, 12, 30)));
+        assertEquals(1, calendar.weekOfEpochDay(epochDay(2025, 1, 5)));
+        assertEquals(2, calendar.weekOfEpochDay(epochDay(2025, 1, 12)));
+        assertEquals(0, calendar.monthOfEpochDay(epochDay(2024, 12, 31)));
+        assertEquals(1, calendar.monthOfEpochDay(epochDay(2025, 1, 1)));
+        assertEquals("2024-12", calendar.monthKey(calendar.monthOfEpochDay(epochDay(2024, 12, 23))));
+        assertEquals("2025-01", calendar.monthKey(1));
+        assertThrows(IllegalArgumentException.class, () -> calendar.monthOfEpochDay(epochDay(2025, 1, 13)));
+        assertThrows(IllegalArgumentException.class, () -> calendar.weekOfEpochDay(epochDay(2024, 12, 22)));
+    }
+
+    @Test
+    void testMonthKeyLookup() {
+        CalendarTable calendar = CalendarTable.builder()
+                .include(LocalDate.of(2024, 11, 5))
+                .include(LocalDate.of(2025, 2, 1))
+                .build();
+
+        assertEquals(0, calendar.monthOf("2024-11"));
+        assertEquals(3, calendar.monthOf("2025-02"));
+        assertEquals(CalendarTable.NOT_FOUND, calendar.monthOf("2025-03"));
+        assertEquals(CalendarTable.NOT_FOUND, calendar.monthOf("2024-10"));
+        assertEquals(CalendarTable.NOT_FOUND, calendar.monthOf("2024-13"));
+        assertEquals(CalendarTable.NOT_FOUND, calendar.monthOf("202411"));
+    }
+
+    @Test
+    void testBuilderCoversIncludedDates() {
+        CalendarTable calendar = CalendarTable.builder()
+                .include(LocalDateTime.of(2024, 10, 31, 22, 0))
+                .include((LocalDateTime) null)
+                .include(LocalDate.of(2024, 10, 2))
+                .build();
+
+        assertEquals("2024-09", calendar.monthKey(calendar.monthOfEpochDay(epochDay(2024, 9, 30))));
+        assertEquals("2024-11", calendar.monthKey(calendar.monthOfEpochDay(epochDay(2024, 11, 3))));
+        assertThrows(IllegalArgumentException.class, () -> calendar.weekOfEpochDay(epochDay(2024, 11, 4)));
+    }
+
+    private static long epochDay(int year, int month, int day) {
+        return LocalDate.of(year, month, day).toEpochDay();
+    }
+}